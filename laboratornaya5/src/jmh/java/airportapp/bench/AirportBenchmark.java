@@ -0,0 +1,68 @@
+// src/jmh/airportapp/bench/AirportBenchmark.java
+package airportapp.bench;
+
+import airportapp.model.Tariff;
+import airportapp.model.TariffQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Операции Airport над временным файлом SQLite с заранее наполненной таблицей.
+// Стоимость removeTariff — разница addAndRemoveTariff и addTariff.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AirportBenchmark {
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private TempDatabase db;
+    private Tariff[] samples;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = new TempDatabase().fill(rows, TariffDataGenerator.DEFAULT_SEED);
+        samples = new TariffDataGenerator(TariffDataGenerator.DEFAULT_SEED + 1)
+                .tariffs(1024).toArray(new Tariff[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    private Tariff nextSample() {
+        return samples[next++ & (samples.length - 1)];
+    }
+
+    @Benchmark
+    public Tariff addTariff() {
+        return db.airport.addTariff(nextSample());
+    }
+
+    @Benchmark
+    public boolean addAndRemoveTariff() {
+        Tariff saved = db.airport.addTariff(nextSample());
+        return db.airport.removeTariff(saved.getId());
+    }
+
+    @Benchmark
+    public List<Tariff> getTariffs() {
+        return db.airport.getTariffs();
+    }
+
+    @Benchmark
+    public Tariff findMaxPriceTariff() {
+        return db.airport.findMaxPriceTariff();
+    }
+
+    @Benchmark
+    public List<Tariff> queryTop10ByFinalPrice() {
+        return db.airport.query(TariffQuery.topByFinalPrice(10));
+    }
+}
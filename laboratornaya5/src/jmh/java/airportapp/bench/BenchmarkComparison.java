@@ -0,0 +1,188 @@
+// src/jmh/airportapp/bench/BenchmarkComparison.java
+package airportapp.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Сравнение двух прогонов JMH (-rf json): для каждого бенчмарка с одинаковыми параметрами
+// печатает изменение и помечает регрессии — ухудшение больше порога (по умолчанию 10%),
+// которое к тому же не укладывается в суммарную погрешность обоих замеров.
+// Запуск: java -cp target/benchmarks.jar airportapp.bench.BenchmarkComparison old.json new.json [порог%]
+// Код возврата 1, если найдена хотя бы одна регрессия.
+public final class BenchmarkComparison {
+    private BenchmarkComparison() {}
+
+    record Result(String key, String mode, double score, double error, String unit) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Использование: BenchmarkComparison <baseline.json> <current.json> [порог %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Result now : current.values()) {
+            Result before = baseline.get(now.key());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "  new   %-70s %12.3f %s%n", now.key(), now.score(), now.unit());
+                continue;
+            }
+            // Для пропускной способности больше — лучше, для времени — меньше
+            boolean higherIsBetter = now.mode().equals("thrpt");
+            double change = (now.score() - before.score()) / before.score();
+            double worse = higherIsBetter ? -change : change;
+            boolean significant = Math.abs(now.score() - before.score()) > before.error() + now.error();
+            boolean regression = worse > threshold && significant;
+            if (regression) regressions++;
+            String mark = regression ? "REGR " : (-worse > threshold && significant ? "IMPR " : "     ");
+            System.out.printf(Locale.ROOT, "%s %-70s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    mark, now.key(), before.score(), now.score(), now.unit(), change * 100);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf(Locale.ROOT, "  gone  %s%n", key);
+            }
+        }
+        System.out.printf(Locale.ROOT, "Регрессий: %d (порог %.0f%%)%n", regressions, threshold * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Result> read(Path file) throws IOException {
+        Object root = new JsonReader(Files.readString(file, StandardCharsets.UTF_8)).value();
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Object item : (List<Object>) root) {
+            Map<String, Object> run = (Map<String, Object>) item;
+            StringBuilder key = new StringBuilder((String) run.get("benchmark"));
+            Object params = run.get("params");
+            if (params instanceof Map<?, ?> map) {
+                new TreeMap<>((Map<String, Object>) map).forEach((k, v) -> key.append(' ').append(k).append('=').append(v));
+            }
+            Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+            double error = metric.get("scoreError") instanceof Double d && !d.isNaN() ? d : 0;
+            Result r = new Result(key.toString(), (String) run.get("mode"),
+                    (Double) metric.get("score"), error, (String) metric.get("scoreUnit"));
+            results.put(r.key(), r);
+        }
+        return results;
+    }
+
+    // Минимальный разбор JSON: объекты, массивы, строки, числа, true/false/null.
+    // JMH пишет "NaN" строкой, такие значения превращаются в Double.NaN.
+    private static final class JsonReader {
+        private final String text;
+        private int pos;
+
+        JsonReader(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipSpace();
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> {
+                    String s = string();
+                    yield s.equals("NaN") ? Double.NaN : s;
+                }
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> number();
+            };
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipSpace();
+            if (text.charAt(pos) == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipSpace();
+                String name = string();
+                skipSpace();
+                expect(':');
+                map.put(name, value());
+                skipSpace();
+                if (text.charAt(pos++) == '}') return map;
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipSpace();
+            if (text.charAt(pos) == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipSpace();
+                if (text.charAt(pos++) == ']') return list;
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c == '\\') {
+                    char e = text.charAt(pos++);
+                    switch (e) {
+                        case 'n' -> sb.append('\n');
+                        case 't' -> sb.append('\t');
+                        case 'r' -> sb.append('\r');
+                        case 'b' -> sb.append('\b');
+                        case 'f' -> sb.append('\f');
+                        case 'u' -> {
+                            sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                        }
+                        default -> sb.append(e);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+
+        private Double number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+            return Double.parseDouble(text.substring(start, pos));
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) {
+                throw new IllegalArgumentException("Неожиданный символ в позиции " + pos);
+            }
+            pos += word.length();
+            return value;
+        }
+
+        private void expect(char c) {
+            if (text.charAt(pos) != c) {
+                throw new IllegalArgumentException("Ожидался '" + c + "' в позиции " + pos);
+            }
+            pos++;
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+    }
+}
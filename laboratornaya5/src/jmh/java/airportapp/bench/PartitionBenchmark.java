@@ -0,0 +1,81 @@
+// src/jmh/airportapp/bench/PartitionBenchmark.java
+package airportapp.bench;
+
+import airportapp.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Масштабирование PartitionedAirport по числу секций: partitions=1 — та же работа в одном файле SQLite.
+// ingest — замена всех строк разобранным набором (каждая секция пишет своим писателем параллельно),
+// остальные — чтения, которые обходят секции параллельно и сливают результат.
+// Один вызов — полная операция над всей таблицей, поэтому режим SingleShotTime.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PartitionBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Path dir;
+    private PartitionedAirport airport;
+    private TariffBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InvalidTariffException {
+        dir = Files.createTempDirectory("airport-bench");
+        Path txt = new TariffDataGenerator(TariffDataGenerator.DEFAULT_SEED).writeTxt(dir.resolve("seed.txt"), rows);
+        batch = TariffFileParser.parse(txt);
+        Files.delete(txt);
+        airport = new PartitionedAirport(dir, partitions);
+        airport.replaceAll(batch, Airport.DEFAULT_BATCH_SIZE, ProgressListener.NONE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        airport.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public long ingest() {
+        return airport.replaceAll(batch, Airport.DEFAULT_BATCH_SIZE, ProgressListener.NONE);
+    }
+
+    // Полный обход кэшей секций
+    @Benchmark
+    public Tariff scanMaxPrice() {
+        return airport.findMaxPriceTariff();
+    }
+
+    // Диапазон цен с сортировкой: выборка в каждой секции и k-путевое слияние
+    @Benchmark
+    public List<Tariff> scanPriceRange() {
+        return airport.query(TariffQuery.all()
+                .finalPriceBetween(1000.0, 20000.0)
+                .sortedBy(TariffSort.FINAL_PRICE, true)
+                .limit(1000));
+    }
+
+    @Benchmark
+    public TariffStatistics.Snapshot statistics() {
+        return airport.getStatistics();
+    }
+}
@@ -0,0 +1,70 @@
+// src/jmh/airportapp/bench/PricingBenchmark.java
+package airportapp.bench;
+
+import airportapp.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Tariff.getPrice через разные DiscountStrategy. «mixed» — реальная смесь стратегий,
+// на которой вызов applyDiscount перестаёт быть мономорфным. applyDiscountBatch — пакетный
+// расчёт по массиву цен (Vector API включён в форке; -Dairport.pricing.scalar=true — без него).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PricingBenchmark {
+    private static final int SIZE = 4096;
+
+    @Param({"none", "fixed", "mixed"})
+    public String strategy;
+
+    private Tariff[] tariffs;
+    private DiscountStrategy batchStrategy;
+    private double[] basePrices;
+    private double[] prices;
+
+    @Setup
+    public void setUp() throws InvalidTariffException {
+        TariffDataGenerator generator = new TariffDataGenerator();
+        tariffs = new Tariff[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            Tariff t = generator.next();
+            DiscountStrategy discount = switch (strategy) {
+                case "none" -> new NoDiscount();
+                case "fixed" -> new FixedDiscount(t.getBasePrice() * 0.1);
+                default -> null;
+            };
+            tariffs[i] = discount == null ? t : new Tariff(t.getDestination(), t.getBasePrice(), discount);
+        }
+        batchStrategy = switch (strategy) {
+            case "none" -> NoDiscount.INSTANCE;
+            case "fixed" -> new FixedDiscount(100);
+            default -> new CompositeDiscount(new PercentageDiscount(10), new CappedDiscount(new PercentageDiscount(30), 5000));
+        };
+        basePrices = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            basePrices[i] = tariffs[i].getBasePrice();
+        }
+        prices = new double[SIZE];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double getPrice() {
+        double sum = 0;
+        for (Tariff t : tariffs) {
+            sum += t.getPrice();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] applyDiscountBatch() {
+        batchStrategy.applyDiscount(basePrices, prices, 0, SIZE);
+        return prices;
+    }
+}
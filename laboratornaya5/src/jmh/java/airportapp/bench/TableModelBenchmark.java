@@ -0,0 +1,61 @@
+// src/jmh/airportapp/bench/TableModelBenchmark.java
+package airportapp.bench;
+
+import airportapp.model.Tariff;
+import airportapp.view.TariffTableModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Форматирование ячеек TariffTableModel.getValueAt для одного экрана (40 строк).
+// firstPaint — новая модель, ячейки форматируются впервые; repaint — из кэша строк;
+// stringFormat — прежнее форматирование через String.format для сравнения.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableModelBenchmark {
+    private static final int VISIBLE_ROWS = 40;
+
+    private List<Tariff> tariffs;
+    private TariffTableModel warm;
+
+    @Setup
+    public void setUp() {
+        tariffs = new TariffDataGenerator().tariffs(VISIBLE_ROWS);
+        warm = new TariffTableModel(tariffs);
+        paint(warm, null);
+    }
+
+    @Benchmark
+    public void firstPaint(Blackhole bh) {
+        paint(new TariffTableModel(tariffs), bh);
+    }
+
+    @Benchmark
+    public void repaint(Blackhole bh) {
+        paint(warm, bh);
+    }
+
+    @Benchmark
+    public void stringFormat(Blackhole bh) {
+        for (Tariff t : tariffs) {
+            bh.consume(t.getDestination());
+            bh.consume(String.format("%.2f", t.getBasePrice()));
+            bh.consume(String.format("%.2f", t.getPrice()));
+        }
+    }
+
+    private static void paint(TariffTableModel model, Blackhole bh) {
+        for (int row = 0; row < model.getRowCount(); row++) {
+            for (int col = 0; col < model.getColumnCount(); col++) {
+                Object value = model.getValueAt(row, col);
+                if (bh != null) bh.consume(value);
+            }
+        }
+    }
+}
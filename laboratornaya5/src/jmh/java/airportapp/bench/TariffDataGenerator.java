@@ -0,0 +1,89 @@
+// src/jmh/airportapp/bench/TariffDataGenerator.java
+package airportapp.bench;
+
+import airportapp.model.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Синтетические тарифы для бенчмарков. Генератор детерминирован: один и тот же seed
+// даёт те же направления и цены, поэтому результаты разных запусков сравнимы.
+public final class TariffDataGenerator {
+    public static final long DEFAULT_SEED = 0x5EEDL;
+
+    private static final String[] CITIES = {
+            "Москва", "Санкт-Петербург", "Казань", "Сочи", "Новосибирск", "Екатеринбург",
+            "Калининград", "Владивосток", "Иркутск", "Мурманск", "Самара", "Уфа",
+            "Berlin", "Paris", "London", "Istanbul", "Dubai", "Tokyo", "New York", "Rome"
+    };
+    private static final String[] TERMINALS = {"", " A", " B", " C", " D", " Север", " Юг"};
+
+    private final SplittableRandom random;
+
+    public TariffDataGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public TariffDataGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Направление из ~140 вариантов; цена 100–500 000 с копейками; у 40% тарифов скидки нет
+    public String destination() {
+        return CITIES[random.nextInt(CITIES.length)] + TERMINALS[random.nextInt(TERMINALS.length)];
+    }
+
+    public double basePrice() {
+        return random.nextLong(10_000, 50_000_000) / 100.0;
+    }
+
+    public double discount(double basePrice) {
+        if (random.nextInt(10) < 4) return 0;
+        return Math.floor(basePrice * random.nextDouble(0.3) * 100) / 100.0;
+    }
+
+    public Tariff next() {
+        String destination = destination();
+        double basePrice = basePrice();
+        double discount = discount(basePrice);
+        try {
+            return new Tariff(destination, basePrice,
+                    discount == 0 ? new NoDiscount() : new FixedDiscount(discount));
+        } catch (InvalidTariffException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public List<Tariff> tariffs(int count) {
+        List<Tariff> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(next());
+        }
+        return list;
+    }
+
+    // TXT-файл в формате Airport.saveToFile: «направление|цена|скидка»
+    public Path writeTxt(Path file, int count) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder(64);
+            for (int i = 0; i < count; i++) {
+                double basePrice = basePrice();
+                line.setLength(0);
+                line.append(destination()).append('|');
+                PriceFormat.appendFixed2(line, basePrice).append('|');
+                PriceFormat.appendFixed2(line, discount(basePrice)).append('\n');
+                writer.append(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+}
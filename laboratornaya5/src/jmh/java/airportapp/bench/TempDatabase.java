@@ -0,0 +1,50 @@
+// src/jmh/airportapp/bench/TempDatabase.java
+package airportapp.bench;
+
+import airportapp.model.Airport;
+import airportapp.model.DbConfig;
+import airportapp.model.ProgressListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Airport над отдельным файлом SQLite во временном каталоге; каталог удаляется при закрытии
+final class TempDatabase implements AutoCloseable {
+    final Path dir;
+    final Airport airport;
+
+    TempDatabase() {
+        try {
+            dir = Files.createTempDirectory("airport-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        airport = new Airport(DbConfig.forUrl("jdbc:sqlite:" + dir.resolve("bench.db")));
+    }
+
+    // Наполняет таблицу count синтетическими тарифами через параллельный импорт
+    TempDatabase fill(int count, long seed) {
+        try {
+            Path txt = new TariffDataGenerator(seed).writeTxt(dir.resolve("seed.txt"), count);
+            airport.importParallel(txt, Airport.DEFAULT_BATCH_SIZE, ProgressListener.NONE);
+            Files.delete(txt);
+        } catch (Exception e) {
+            throw new IllegalStateException("Не удалось наполнить БД: " + e.getMessage(), e);
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        airport.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+// src/jmh/airportapp/bench/TxtIoBenchmark.java
+package airportapp.bench;
+
+import airportapp.model.Airport;
+import airportapp.model.InvalidTariffException;
+import airportapp.model.ProgressListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Экспорт и импорт TXT на 10k/100k/1M строк. Каждый вызов — полная операция с файлом,
+// поэтому режим SingleShotTime с несколькими итерациями вместо среднего по времени.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TxtIoBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private TempDatabase db;
+    private Path input;
+    private Path output;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        db = new TempDatabase().fill(rows, TariffDataGenerator.DEFAULT_SEED);
+        input = new TariffDataGenerator(TariffDataGenerator.DEFAULT_SEED).writeTxt(db.dir.resolve("input.txt"), rows);
+        output = db.dir.resolve("output.txt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public void saveToFile() throws IOException {
+        db.airport.saveToFile(output.toString());
+    }
+
+    // Параллельный разбор (TariffFileParser) и вставка одной транзакцией
+    @Benchmark
+    public void loadFromFile() throws IOException, InvalidTariffException {
+        db.airport.loadFromFile(input.toString());
+    }
+
+    // Потоковый построчный импорт — путь для .gz и нехватки памяти
+    @Benchmark
+    public long importStreaming() throws IOException, InvalidTariffException {
+        return db.airport.importFromFile(input, Airport.DEFAULT_BATCH_SIZE, ProgressListener.NONE);
+    }
+}
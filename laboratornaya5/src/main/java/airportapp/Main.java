@@ -1,19 +1,61 @@
 // src/airportapp/Main.java
 package airportapp;
 
+import airportapp.model.Airport;
+import airportapp.model.PartitionedAirport;
+import airportapp.model.StartupTimeline;
+import airportapp.model.TariffRepository;
+import airportapp.server.TariffServer;
 import airportapp.view.MainWindow;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        StartupTimeline.mark(StartupTimeline.MAIN);
+        // --server [порт] [--partitions N] — HTTP-интерфейс без окна; с --partitions (или
+        // -Dairport.partitions=N) тарифы хранятся в N файлах SQLite (PartitionedAirport)
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = TariffServer.DEFAULT_PORT;
+            Integer partitions = Integer.getInteger(PartitionedAirport.PARTITIONS_PROPERTY);
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--partitions") && i + 1 < args.length) {
+                    partitions = Integer.parseInt(args[++i]);
+                } else {
+                    port = Integer.parseInt(args[i]);
+                }
+            }
+            startServer(port, partitions);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
             } catch (Exception e) {
                 e.printStackTrace();
             }
-            new MainWindow().setVisible(true);
+            MainWindow window = new MainWindow();
+            StartupTimeline.mark(StartupTimeline.WINDOW_CREATED);
+            window.setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    private static void startServer(int port, Integer partitions) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        TariffRepository airport = partitions == null
+                ? new Airport()
+                : new PartitionedAirport(Airport.dataDirectory(), partitions);
+        TariffServer server = new TariffServer(airport, new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            airport.close();
+        }));
+        server.start();
+        System.out.println("Сервер тарифов запущен на порту " + server.port()
+                + (partitions == null ? "" : ", секций: " + partitions));
+        StartupTimeline.mark(StartupTimeline.SERVER_STARTED);
+        StartupTimeline.finish();
+    }
+}
@@ -1,146 +1,1623 @@
 // src/airportapp/model/Airport.java
 package airportapp.model;
 
+import airportapp.model.AirportMetrics.Operation;
+
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class Airport implements TariffRepository {
+    // Каталог данных: -Dairport.data.dir=путь, по умолчанию домашний каталог (абсолютный путь — данные не потеряются)
+    public static final String DATA_DIR_PROPERTY = "airport.data.dir";
+    private static final String DB_FILE = "airport.db";
+    public static final int DEFAULT_BATCH_SIZE = 5000;
+    private static final int EXPORT_FETCH_SIZE = 5000;
 
-public class Airport {
-    // Абсолютный путь — данные не потеряются
-    private static final String DB_PATH = System.getProperty("user.home") + "/airport.db";
-    private static final String DB_URL = "jdbc:sqlite:" + DB_PATH;
-
-    private static final String CREATE_TABLE_SQL = """
-        CREATE TABLE IF NOT EXISTS tariffs (
-            id INTEGER PRIMARY KEY AUTOINCREMENT,
-            destination TEXT NOT NULL,
-            base_price REAL NOT NULL,
-            discount REAL NOT NULL
-        );
+    private static final String[] DROP_CHANGE_LOG_TRIGGERS_SQL = {
+        "DROP TRIGGER IF EXISTS tariffs_log_insert",
+        "DROP TRIGGER IF EXISTS tariffs_log_update",
+        "DROP TRIGGER IF EXISTS tariffs_log_delete"
+    };
+    private static final String QUERY_COLUMNS = "id, destination, base_price, discount";
+    private static final String INSERT_SQL = "INSERT INTO tariffs(destination, base_price, discount) VALUES(?, ?, ?)";
+    private static final String LAST_ID_SQL = "SELECT last_insert_rowid()";
+    private static final String UPDATE_SQL = "UPDATE tariffs SET destination = ?, base_price = ?, discount = ? WHERE id = ?";
+    private static final String DELETE_BY_ID_SQL = "DELETE FROM tariffs WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM tariffs WHERE destination = ? AND base_price = ? AND discount = ?";
+    private static final String SELECT_ALL_SQL = "SELECT id, destination, base_price, discount FROM tariffs ORDER BY id";
+    private static final String EXPORT_SQL = "SELECT destination, base_price, discount FROM tariffs ORDER BY id";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM tariffs";
+    private static final String INSERT_REPRICE_SQL = "INSERT INTO reprice_operations(description, created_at) VALUES(?, ?)";
+    private static final String SET_REPRICE_ROWS_SQL = "UPDATE reprice_operations SET row_count = ? WHERE id = ?";
+    private static final String SELECT_REPRICE_SQL = "SELECT row_count, undone FROM reprice_operations WHERE id = ?";
+    private static final String MARK_UNDONE_SQL = "UPDATE reprice_operations SET undone = 1 WHERE id = ?";
+    private static final String REPRICE_HISTORY_SQL =
+            "SELECT id, description, created_at, row_count, undone FROM reprice_operations ORDER BY id DESC";
+    private static final String JOURNAL_BASE_SQL =
+            "SELECT tariff_id, old_base_price FROM reprice_journal WHERE operation_id = ? ORDER BY tariff_id";
+    private static final String SET_JOURNAL_DISCOUNT_SQL =
+            "UPDATE reprice_journal SET new_discount = ? WHERE operation_id = ? AND tariff_id = ?";
+    private static final String CHECK_REPRICE_SQL = """
+        SELECT COUNT(*), MIN(tariff_id) FROM reprice_journal WHERE operation_id = ?
+            AND NOT (new_base_price BETWEEN 0 AND 1e7 AND new_discount BETWEEN 0 AND 1e7)
+        """;
+    private static final String APPLY_REPRICE_SQL = """
+        UPDATE tariffs SET base_price = j.new_base_price, discount = j.new_discount
+        FROM reprice_journal AS j WHERE j.operation_id = ? AND j.tariff_id = tariffs.id
+        """;
+    private static final String NEW_PRICES_SQL =
+            "SELECT tariff_id, new_base_price, new_discount FROM reprice_journal WHERE operation_id = ? ORDER BY tariff_id";
+    // Отмена касается только строк, которые с тех пор не менялись
+    private static final String UNDO_PRICES_SQL = """
+        SELECT j.tariff_id, j.old_base_price, j.old_discount FROM reprice_journal AS j
+        JOIN tariffs AS t ON t.id = j.tariff_id
+        WHERE j.operation_id = ? AND t.base_price = j.new_base_price AND t.discount = j.new_discount
+        ORDER BY j.tariff_id
+        """;
+    private static final String UNDO_REPRICE_SQL = """
+        UPDATE tariffs SET base_price = j.old_base_price, discount = j.old_discount
+        FROM reprice_journal AS j WHERE j.operation_id = ? AND j.tariff_id = tariffs.id
+            AND tariffs.base_price = j.new_base_price AND tariffs.discount = j.new_discount
+        """;
+    private static final String DELETE_JOURNAL_SQL = "DELETE FROM reprice_journal WHERE operation_id = ?";
+    private static final String WATERMARK_SQL = "SELECT seq FROM sqlite_sequence WHERE name = 'tariff_changes'";
+    private static final String LAST_RESET_SQL = "SELECT MAX(seq) FROM tariff_changes WHERE tariff_id IS NULL";
+    private static final String SYNC_VALUE_SQL = "SELECT value FROM sync_state WHERE name = ?";
+    private static final String SET_SYNC_VALUE_SQL =
+            "INSERT INTO sync_state(name, value) VALUES(?, ?) ON CONFLICT(name) DO UPDATE SET value = excluded.value";
+    private static final String CHANGED_ROWS_SQL = """
+        SELECT c.tariff_id, t.destination, t.base_price, t.discount
+        FROM (SELECT DISTINCT tariff_id FROM tariff_changes WHERE seq > ? AND tariff_id IS NOT NULL) AS c
+        LEFT JOIN tariffs AS t ON t.id = c.tariff_id
+        ORDER BY c.tariff_id
         """;
+    private static final String UPSERT_SQL = """
+        INSERT INTO tariffs(id, destination, base_price, discount) VALUES(?, ?, ?, ?)
+        ON CONFLICT(id) DO UPDATE SET destination = excluded.destination,
+            base_price = excluded.base_price, discount = excluded.discount
+        """;
+    private static final String TRIM_CHANGES_SQL = "DELETE FROM tariff_changes WHERE seq <= ?";
+    // Ключи sync_state
+    private static final String TRIMMED_KEY = "change_log_trimmed";
+    private static final String EXPORTED_KEY = "delta_exported";
+    private static final String APPLIED_KEY = "delta_applied";
+    // Больше строк в одном событии UPDATED не перечисляется — вместо него приходит RELOADED
+    private static final int EVENT_TARIFFS_LIMIT = 10_000;
+    private static final String STATS_SQL = """
+        SELECT destination, COUNT(*), SUM(base_price - discount), MIN(base_price - discount),
+               MAX(base_price - discount), SUM(discount)
+        FROM tariffs GROUP BY destination ORDER BY COUNT(*) DESC, destination
+        """;
+
+    private final ConnectionPool pool;
+    private final AirportMetrics metrics = new AirportMetrics();
+    // Копия таблицы в памяти в колонках (TariffStore), упорядоченная по id: читается при старте
+    // и обновляется после каждой записи в БД. Новые id всегда больше существующих (AUTOINCREMENT),
+    // поэтому вставка — это добавление в конец. После массовой замены хранилище подменяется целиком.
+    //
+    // Потокобезопасность: хранилище и статистика одной версии публикуются вместе в state.
+    // Читатели берут текущую версию без замков и работают с неизменяемым снимком на момент чтения —
+    // импорт или переоценка становятся видны им целиком, одной записью в state.
+    // Писатели под writeLock строят следующую версию (CacheEdit) и публикуют её.
+    private record State(TariffStore store, TariffStatistics statistics) {}
 
-    static {
+    private final AtomicReference<State> state = new AtomicReference<>();
+    private final Object writeLock = new Object();
+    // Различные направления для фильтра; обновляется вместе с кэшем, синхронизирован сам
+    private final DestinationIndex destinationIndex = new DestinationIndex();
+    private final List<TariffChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public Airport() {
+        this(DbConfig.forUrl("jdbc:sqlite:" + dataDirectory().resolve(DB_FILE)));
+    }
+
+    // Каталог файлов БД; создаётся, если его нет — SQLite создаёт только сам файл
+    public static Path dataDirectory() {
+        Path dir = Paths.get(System.getProperty(DATA_DIR_PROPERTY, System.getProperty("user.home")));
         try {
-            Class.forName("org.sqlite.JDBC");
-            initDatabase();
-        } catch (ClassNotFoundException | SQLException e) {
-            throw new ExceptionInInitializerError("Не удалось инициализировать БД: " + e.getMessage());
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать каталог данных " + dir + ": " + e.getMessage(), e);
         }
+        return dir.toAbsolutePath();
     }
 
-    private static void initDatabase() throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(CREATE_TABLE_SQL);
+    // Открывает БД, доводит схему до текущей версии и читает таблицу в кэш — на большой таблице
+    // это заметное время, поэтому окно создаёт Airport в фоне (AsyncAirport.open).
+    // Драйвер SQLite находится через DriverManager (JDBC 4); его отсутствие — обычная ошибка открытия
+    public Airport(DbConfig config) {
+        try {
+            this.pool = new ConnectionPool(config, metrics);
+        } catch (SQLException e) {
+            throw new RuntimeException("Не удалось открыть БД: " + e.getMessage(), e);
+        }
+        StartupTimeline.mark(StartupTimeline.DB_OPENED);
+        try {
+            SchemaMigrator.migrate(pool);
+            StartupTimeline.mark(StartupTimeline.SCHEMA_READY);
+            TariffStore store = loadAll();
+            destinationIndex.rebuild(store);
+            state.set(new State(store, TariffStatistics.compute(store)));
+            StartupTimeline.mark(StartupTimeline.CACHE_LOADED);
+        } catch (SQLException e) {
+            pool.close();
+            throw new RuntimeException("Не удалось инициализировать БД: " + e.getMessage(), e);
         }
+        metrics.register(config.url());
+    }
+
+    // Счётчики и задержки операций; те же данные опубликованы в JMX
+    public AirportMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void addChangeListener(TariffChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(TariffChangeListener listener) {
+        listeners.remove(listener);
     }
 
     // === SQLite: основные операции ===
-    public void addTariff(Tariff tariff) {
-        String sql = "INSERT INTO tariffs(destination, base_price, discount) VALUES(?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    // Возвращает сохранённый тариф с присвоенным id
+    public Tariff addTariff(Tariff tariff) {
+        long start = AirportMetrics.start();
+        try (PooledConnection conn = pool.acquireWriter()) {
+            PreparedStatement pstmt = conn.prepare(INSERT_SQL);
             pstmt.setString(1, tariff.getDestination());
             pstmt.setDouble(2, tariff.getBasePrice());
             pstmt.setDouble(3, tariff.getBasePrice() - tariff.getPrice());
             pstmt.executeUpdate();
+            Tariff saved = tariff.withId(lastInsertId(conn));
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                edit.inserted(saved);
+                edit.publish();
+            }
+            fire(TariffChangeEvent.Type.INSERTED, List.of(saved));
+            metrics.record(Operation.ADD, start, 1);
+            return saved;
         } catch (SQLException e) {
+            metrics.recordError(Operation.ADD, e);
             throw new RuntimeException("Ошибка добавления тарифа: " + e.getMessage(), e);
         }
     }
 
+    // Изменение тарифа одним UPDATE по первичному ключу. null — строки с таким id нет
+    public Tariff updateTariff(long id, Tariff updated) {
+        long start = AirportMetrics.start();
+        try (PooledConnection conn = pool.acquireWriter()) {
+            PreparedStatement pstmt = conn.prepare(UPDATE_SQL);
+            pstmt.setString(1, updated.getDestination());
+            pstmt.setDouble(2, updated.getBasePrice());
+            pstmt.setDouble(3, updated.getBasePrice() - updated.getPrice());
+            pstmt.setLong(4, id);
+            if (pstmt.executeUpdate() == 0) {
+                metrics.record(Operation.UPDATE, start, 0);
+                return null;
+            }
+            Tariff saved = updated.withId(id);
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                edit.updated(saved);
+                edit.publish();
+            }
+            fire(TariffChangeEvent.Type.UPDATED, List.of(saved));
+            metrics.record(Operation.UPDATE, start, 1);
+            return saved;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.UPDATE, e);
+            throw new RuntimeException("Ошибка изменения тарифа: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean removeTariff(long id) {
+        long start = AirportMetrics.start();
+        try (PooledConnection conn = pool.acquireWriter()) {
+            PreparedStatement pstmt = conn.prepare(DELETE_BY_ID_SQL);
+            pstmt.setLong(1, id);
+            if (pstmt.executeUpdate() == 0) {
+                metrics.record(Operation.REMOVE, start, 0);
+                return false;
+            }
+            Tariff removed;
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                removed = edit.removed(id);
+                edit.publish();
+            }
+            if (removed != null) {
+                fire(TariffChangeEvent.Type.REMOVED, List.of(removed));
+            }
+            metrics.record(Operation.REMOVE, start, 1);
+            return true;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.REMOVE, e);
+            throw new RuntimeException("Ошибка удаления тарифа: " + e.getMessage(), e);
+        }
+    }
+
+    // Сохранённый тариф удаляется по id; несохранённый — по значениям, вместе со всеми такими же строками
     public boolean removeTariff(Tariff tariff) {
-        String sql = "DELETE FROM tariffs WHERE destination = ? AND base_price = ? AND discount = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, tariff.getDestination());
-            pstmt.setDouble(2, tariff.getBasePrice());
-            pstmt.setDouble(3, tariff.getBasePrice() - tariff.getPrice());
-            return pstmt.executeUpdate() > 0;
+        if (tariff.getId() != Tariff.NO_ID) {
+            return removeTariff(tariff.getId());
+        }
+        long start = AirportMetrics.start();
+        try (PooledConnection conn = pool.acquireWriter()) {
+            PreparedStatement pstmt = conn.prepare(DELETE_SQL);
+            String dest = tariff.getDestination();
+            double base = tariff.getBasePrice();
+            double discount = base - tariff.getPrice();
+            pstmt.setString(1, dest);
+            pstmt.setDouble(2, base);
+            pstmt.setDouble(3, discount);
+            int deleted = pstmt.executeUpdate();
+            if (deleted == 0) {
+                metrics.record(Operation.REMOVE, start, 0);
+                return false;
+            }
+            List<Tariff> removed;
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                int code = edit.store.dictionary().find(dest);
+                removed = edit.store.removeMatching(dest, base, discount);
+                for (Tariff t : removed) {
+                    edit.statistics.remove(code, t.getPrice(), t.getBasePrice() - t.getPrice());
+                    destinationIndex.remove(t.getDestination());
+                }
+                edit.publish();
+            }
+            fire(TariffChangeEvent.Type.REMOVED, removed);
+            metrics.record(Operation.REMOVE, start, deleted);
+            return true;
         } catch (SQLException e) {
+            metrics.recordError(Operation.REMOVE, e);
             throw new RuntimeException("Ошибка удаления тарифа: " + e.getMessage(), e);
         }
     }
 
+    // Пакетное добавление одной транзакцией. Единственный писатель и AUTOINCREMENT выдают id подряд
+    public List<Tariff> addTariffs(List<Tariff> tariffs) {
+        if (tariffs.isEmpty()) {
+            return List.of();
+        }
+        long start = AirportMetrics.start();
+        List<Tariff> saved = new ArrayList<>(tariffs.size());
+        try (ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            TariffBatchInserter inserter = new TariffBatchInserter(conn.prepare(INSERT_SQL), DEFAULT_BATCH_SIZE);
+            for (Tariff t : tariffs) {
+                inserter.add(t.getDestination(), t.getBasePrice(), t.getBasePrice() - t.getPrice());
+            }
+            inserter.flush();
+            long firstId = lastInsertId(conn) - inserter.inserted() + 1;
+            tx.commit();
+            for (int i = 0; i < tariffs.size(); i++) {
+                saved.add(tariffs.get(i).withId(firstId + i));
+            }
+            // Пока соединение писателя удерживается: версии кэша идут в порядке записей в БД
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                for (Tariff t : saved) {
+                    edit.inserted(t);
+                }
+                edit.publish();
+            }
+        } catch (SQLException e) {
+            metrics.recordError(Operation.ADD, e);
+            throw new RuntimeException("Ошибка добавления тарифов: " + e.getMessage(), e);
+        }
+        fire(TariffChangeEvent.Type.INSERTED, saved);
+        metrics.record(Operation.ADD, start, saved.size());
+        return saved;
+    }
+
+    // Пакетное удаление по id одной транзакцией; несуществующие id пропускаются.
+    // Возвращает удалённые тарифы
+    public List<Tariff> removeTariffs(long[] ids) {
+        long start = AirportMetrics.start();
+        List<Tariff> removed;
+        try (ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PreparedStatement pstmt = tx.connection().prepare(DELETE_BY_ID_SQL);
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setLong(1, ids[i]);
+                pstmt.addBatch();
+                if ((i + 1) % DEFAULT_BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+            tx.commit();
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                removed = edit.store.removeIds(ids);
+                DestinationDictionary dictionary = edit.store.dictionary();
+                for (Tariff t : removed) {
+                    edit.statistics.remove(dictionary.find(t.getDestination()), t.getPrice(), t.getBasePrice() - t.getPrice());
+                    destinationIndex.remove(t.getDestination());
+                }
+                edit.publish();
+            }
+        } catch (SQLException e) {
+            metrics.recordError(Operation.REMOVE, e);
+            throw new RuntimeException("Ошибка удаления тарифов: " + e.getMessage(), e);
+        }
+        if (!removed.isEmpty()) {
+            fire(TariffChangeEvent.Type.REMOVED, removed);
+        }
+        metrics.record(Operation.REMOVE, start, removed.size());
+        return removed;
+    }
+
+    // Группа изменений из TariffWriteQueue одной транзакцией (group commit): одна фиксация и один
+    // fsync журнала на всю группу — транзакция всегда с synchronous=FULL (beginDurableTransaction),
+    // так что после возврата группа на диске. Результаты — в порядке изменений: сохранённый тариф
+    // для добавления, изменённый тариф или null для изменения, Boolean для удаления.
+    // Кэш обновляется после фиксации, пока соединение писателя удерживается, — как у addTariffs;
+    // события группы складываются в events, подписчикам их передаёт вызывающий (fireAll), уже без замков.
+    // RuntimeException — группа откатилась целиком; TariffWriteQueue.CommittedException — группа
+    // записана, но кэш не удалось ни обновить, ни перечитать
+    Object[] writeMutations(List<TariffWriteQueue.Mutation> batch, List<TariffChangeEvent> events) {
+        long start = AirportMetrics.start();
+        Object[] results = new Object[batch.size()];
+        try (ConnectionPool.Transaction tx = pool.beginDurableTransaction()) {
+            PooledConnection conn = tx.connection();
+            PreparedStatement insert = conn.prepare(INSERT_SQL);
+            PreparedStatement update = conn.prepare(UPDATE_SQL);
+            PreparedStatement delete = conn.prepare(DELETE_BY_ID_SQL);
+            for (int i = 0; i < results.length; i++) {
+                TariffWriteQueue.Mutation m = batch.get(i);
+                Tariff t = m.tariff();
+                results[i] = switch (m.kind()) {
+                    case ADD -> {
+                        insert.setString(1, t.getDestination());
+                        insert.setDouble(2, t.getBasePrice());
+                        insert.setDouble(3, t.getBasePrice() - t.getPrice());
+                        insert.executeUpdate();
+                        yield t.withId(lastInsertId(conn));
+                    }
+                    case UPDATE -> {
+                        update.setString(1, t.getDestination());
+                        update.setDouble(2, t.getBasePrice());
+                        update.setDouble(3, t.getBasePrice() - t.getPrice());
+                        update.setLong(4, m.id());
+                        yield update.executeUpdate() == 0 ? null : t.withId(m.id());
+                    }
+                    case REMOVE -> {
+                        delete.setLong(1, m.id());
+                        yield delete.executeUpdate() > 0;
+                    }
+                };
+            }
+            tx.commit();
+            publishMutations(batch, results, events);
+        } catch (SQLException e) {
+            metrics.recordError(Operation.GROUP_COMMIT, e);
+            throw new RuntimeException("Ошибка групповой записи тарифов: " + e.getMessage(), e);
+        }
+        metrics.record(Operation.GROUP_COMMIT, start, results.length);
+        return results;
+    }
+
+    // Вся группа — одна версия кэша. События — в порядке изменений; подряд идущие изменения
+    // одного вида — одним событием. Если версию построить не удалось, кэш перечитывается из БД
+    // (вызывается после фиксации, под соединением писателя)
+    private void publishMutations(List<TariffWriteQueue.Mutation> batch, Object[] results,
+                                  List<TariffChangeEvent> events) {
+        List<TariffChangeEvent.Type> types = new ArrayList<>();
+        List<List<Tariff>> runs = new ArrayList<>();
+        try {
+            synchronized (writeLock) {
+                CacheEdit edit = new CacheEdit();
+                for (int i = 0; i < results.length; i++) {
+                    TariffChangeEvent.Type type;
+                    Tariff changed;
+                    switch (batch.get(i).kind()) {
+                        case ADD -> {
+                            changed = (Tariff) results[i];
+                            edit.inserted(changed);
+                            type = TariffChangeEvent.Type.INSERTED;
+                        }
+                        case UPDATE -> {
+                            changed = (Tariff) results[i];
+                            if (changed != null) edit.updated(changed);
+                            type = TariffChangeEvent.Type.UPDATED;
+                        }
+                        default -> {
+                            changed = results[i] == Boolean.TRUE ? edit.removed(batch.get(i).id()) : null;
+                            type = TariffChangeEvent.Type.REMOVED;
+                        }
+                    }
+                    if (changed == null) {
+                        continue;
+                    }
+                    if (types.isEmpty() || types.getLast() != type) {
+                        types.add(type);
+                        runs.add(new ArrayList<>());
+                    }
+                    runs.getLast().add(changed);
+                }
+                edit.publish();
+            }
+        } catch (RuntimeException e) {
+            // индекс направлений мог измениться частично — перечитываются и кэш, и индекс
+            metrics.recordError(Operation.GROUP_COMMIT, e);
+            try {
+                rebuildCache();
+            } catch (SQLException | RuntimeException reloadError) {
+                reloadError.addSuppressed(e);
+                throw new TariffWriteQueue.CommittedException(
+                        "Тарифы записаны, но кэш не обновлён: " + reloadError.getMessage(), reloadError);
+            }
+            events.add(new TariffChangeEvent(TariffChangeEvent.Type.RELOADED, List.of()));
+            return;
+        }
+        for (int i = 0; i < types.size(); i++) {
+            events.add(new TariffChangeEvent(types.get(i), runs.get(i)));
+        }
+    }
+
+    void fireAll(List<TariffChangeEvent> events) {
+        for (TariffChangeEvent event : events) {
+            for (TariffChangeListener listener : listeners) {
+                listener.tariffsChanged(event);
+            }
+        }
+    }
+
+    // Следующая версия кэша: хранилище и статистика из edit() текущей. Строится писателем под
+    // writeLock и становится видна читателям в publish(); индекс направлений обновляется сразу
+    private final class CacheEdit {
+        final TariffStore store;
+        final TariffStatistics statistics;
+
+        CacheEdit() {
+            State current = state.get();
+            store = current.store().edit();
+            statistics = current.statistics().edit();
+        }
+
+        void inserted(Tariff saved) {
+            store.append(saved);
+            track(store.size() - 1);
+            destinationIndex.add(saved.getDestination());
+        }
+
+        void updated(Tariff saved) {
+            int index = store.indexOf(saved.getId());
+            if (index >= 0) {
+                destinationIndex.remove(store.destination(index));
+                destinationIndex.add(saved.getDestination());
+                untrack(index);
+                store.set(index, saved);
+                track(index);
+            }
+        }
+
+        // Удалённый тариф или null, если его не было в кэше
+        Tariff removed(long id) {
+            int index = store.indexOf(id);
+            if (index < 0) {
+                return null;
+            }
+            Tariff removed = store.tariffAt(index);
+            untrack(index);
+            store.remove(index);
+            destinationIndex.remove(removed.getDestination());
+            return removed;
+        }
+
+        void track(int row) {
+            statistics.add(store.destinationCode(row), store.finalPrice(row), store.discount(row));
+        }
+
+        void untrack(int row) {
+            statistics.remove(store.destinationCode(row), store.finalPrice(row), store.discount(row));
+        }
+
+        void publish() {
+            state.set(new State(store, statistics));
+        }
+    }
+
+    public Tariff getTariff(long id) {
+        long start = AirportMetrics.start();
+        TariffStore store = state.get().store();
+        int index = store.indexOf(id);
+        Tariff found = index >= 0 ? store.tariffAt(index) : null;
+        metrics.record(Operation.GET_TARIFFS, start, found == null ? 0 : 1);
+        return found;
+    }
+
+    private static long lastInsertId(PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare(LAST_ID_SQL).executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Читается из памяти, без обращения к БД; объекты Tariff создаются на каждый вызов
     public List<Tariff> getTariffs() {
-        List<Tariff> list = new ArrayList<>();
-        String sql = "SELECT destination, base_price, discount FROM tariffs";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                String dest = rs.getString("destination");
-                double base = rs.getDouble("base_price");
-                double discount = rs.getDouble("discount");
-                DiscountStrategy strategy = (discount > 0) ? new FixedDiscount(discount) : new NoDiscount();
-                list.add(new Tariff(dest, base, strategy));
+        long start = AirportMetrics.start();
+        TariffStore store = state.get().store();
+        List<Tariff> copy = store.toList(0, store.size());
+        metrics.record(Operation.GET_TARIFFS, start, copy.size());
+        return copy;
+    }
+
+    public int countTariffs() {
+        return state.get().store().size();
+    }
+
+    // Окно строк для постраничного просмотра — без копирования всей таблицы
+    public List<Tariff> getTariffs(int offset, int limit) {
+        long start = AirportMetrics.start();
+        TariffStore store = state.get().store();
+        int from = Math.min(offset, store.size());
+        int to = Math.min(from + limit, store.size());
+        List<Tariff> window = store.toList(from, to);
+        metrics.record(Operation.GET_TARIFFS, start, window.size());
+        return window;
+    }
+
+    public Tariff findMaxPriceTariff() {
+        long start = AirportMetrics.start();
+        // проход по двум колонкам цен; объект создаётся только для найденной строки
+        TariffStore store = state.get().store();
+        int scanned = store.size();
+        int row = store.indexOfMaxFinalPrice();
+        Tariff max = row >= 0 ? store.tariffAt(row) : null;
+        metrics.record(Operation.FIND_MAX, start, scanned);
+        return max;
+    }
+
+    // Выборка с фильтрами и сортировкой на стороне БД (по индексам), без чтения всей таблицы
+    public List<Tariff> query(TariffQuery query) {
+        long start = AirportMetrics.start();
+        List<Object> params = new ArrayList<>();
+        String sql = query.toSql(QUERY_COLUMNS, params);
+        List<Tariff> list = new ArrayList<>(query.getLimit() > 0 ? query.getLimit() : 16);
+        try (PooledConnection conn = pool.acquireReader()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                readAll(rs, list);
             }
         } catch (SQLException | InvalidTariffException e) {
-            throw new RuntimeException("Ошибка загрузки тарифов: " + e.getMessage(), e);
+            metrics.recordError(Operation.QUERY, e);
+            throw new RuntimeException("Ошибка выборки тарифов: " + e.getMessage(), e);
         }
+        metrics.record(Operation.QUERY, start, list.size());
         return list;
     }
 
-    public Tariff findMaxPriceTariff() {
-        String sql = """
-            SELECT destination, base_price, discount 
-            FROM tariffs 
-            ORDER BY (base_price - discount) DESC 
-            LIMIT 1
-            """;
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                String dest = rs.getString("destination");
-                double base = rs.getDouble("base_price");
-                double discount = rs.getDouble("discount");
-                DiscountStrategy strategy = (discount > 0) ? new FixedDiscount(discount) : new NoDiscount();
-                return new Tariff(dest, base, strategy);
+    // Вся таблица сразу в колонки, без промежуточных объектов Tariff
+    private TariffStore loadAll() throws SQLException {
+        long start = AirportMetrics.start();
+        TariffStore store = new TariffStore(countTariffsInDb());
+        try (PooledConnection conn = pool.acquireReader();
+             ResultSet rs = conn.prepare(SELECT_ALL_SQL).executeQuery()) {
+            while (rs.next()) {
+                store.append(rs.getLong(1), rs.getString(2), rs.getDouble(3), rs.getDouble(4));
             }
-        } catch (SQLException | InvalidTariffException e) {
-            throw new RuntimeException("Ошибка поиска макс. тарифа: " + e.getMessage(), e);
         }
-        return null;
+        metrics.record(Operation.MATERIALIZE, start, store.size());
+        return store;
+    }
+
+    private int countTariffsInDb() throws SQLException {
+        try (PooledConnection conn = pool.acquireReader()) {
+            return (int) countRows(conn);
+        }
+    }
+
+    // === Статистика по направлениям ===
+    // Из поддерживаемой в памяти статистики: стоимость — по числу направлений, а не тарифов
+    public TariffStatistics.Snapshot getStatistics() {
+        long start = AirportMetrics.start();
+        TariffStatistics.Snapshot snapshot = readStatistics(
+                (store, statistics) -> statistics.snapshot(store.dictionary()));
+        metrics.record(Operation.STATISTICS, start, snapshot.byDestination().size());
+        return snapshot;
+    }
+
+    // Хранилище и статистика одной версии, с уточнёнными min/max — в том числе для сводки
+    // по нескольким секциям (PartitionedAirport)
+    <T> T readStatistics(BiFunction<TariffStore, TariffStatistics, T> reader) {
+        State current = state.get();
+        TariffStatistics statistics = current.statistics();
+        if (statistics.hasStaleExtremes()) {
+            // Уточнённые min/max публикуются, если за это время не вышла новая версия
+            statistics = statistics.edit();
+            statistics.repairExtremes(current.store());
+            state.compareAndSet(current, new State(current.store(), statistics));
+        }
+        return reader.apply(current.store(), statistics);
+    }
+
+    // Та же сводка запросом GROUP BY к БД (без перцентилей — в SQLite нет агрегатов для них).
+    // Годится для сверки и для данных, ещё не попавших в память
+    public List<DestinationStats> queryStatistics() {
+        long start = AirportMetrics.start();
+        List<DestinationStats> list = new ArrayList<>();
+        try (PooledConnection conn = pool.acquireReader();
+             ResultSet rs = conn.prepare(STATS_SQL).executeQuery()) {
+            while (rs.next()) {
+                long count = rs.getLong(2);
+                double sum = rs.getDouble(3);
+                list.add(new DestinationStats(rs.getString(1), count, sum, rs.getDouble(4), rs.getDouble(5),
+                        sum / count, Double.NaN, Double.NaN, rs.getDouble(6)));
+            }
+        } catch (SQLException e) {
+            metrics.recordError(Operation.STATISTICS, e);
+            throw new RuntimeException("Ошибка расчёта статистики: " + e.getMessage(), e);
+        }
+        metrics.record(Operation.STATISTICS, start, list.size());
+        return list;
+    }
+
+    // === Массовая переоценка ===
+    // Одна транзакция: старые и новые значения отобранных строк пишутся в журнал (INSERT ... SELECT),
+    // проверяются на ограничения Tariff и FixedDiscount и переносятся в таблицу одним UPDATE ... FROM.
+    // По журналу переоценку можно отменить (undoReprice) без загрузки TXT-файла.
+    public RepriceOperation reprice(BulkReprice op) throws InvalidTariffException {
+        long start = AirportMetrics.start();
+        long createdAt = System.currentTimeMillis();
+        String description = op.describe();
+        long operationId;
+        int rows;
+        List<Tariff> updated;
+        try (ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            PreparedStatement insert = conn.prepare(INSERT_REPRICE_SQL);
+            insert.setString(1, description);
+            insert.setLong(2, createdAt);
+            insert.executeUpdate();
+            operationId = lastInsertId(conn);
+
+            List<Object> params = new ArrayList<>();
+            params.add(operationId);
+            String sql = "INSERT INTO reprice_journal(operation_id, tariff_id, old_base_price, old_discount,"
+                    + " new_base_price, new_discount) SELECT ?, id, base_price, discount, "
+                    + op.newBaseSql(params) + ", " + op.newDiscountSql(params)
+                    + " FROM tariffs" + op.whereSql(params);
+            PreparedStatement journal = conn.prepare(sql);
+            for (int i = 0; i < params.size(); i++) {
+                journal.setObject(i + 1, params.get(i));
+            }
+            rows = journal.executeUpdate();
+            if (rows == 0) {
+                // транзакция откатится в close(): пустая переоценка в журнал не попадает
+                metrics.record(Operation.REPRICE, start, 0);
+                return new RepriceOperation(0, description, createdAt, 0, false);
+            }
+            checkCancelled();
+            if (!op.computedInSql()) {
+                computeDiscounts(conn, operationId, rows, op.getStrategy());
+            }
+            checkPriceLimits(conn, operationId);
+            PreparedStatement apply = conn.prepare(APPLY_REPRICE_SQL);
+            apply.setLong(1, operationId);
+            apply.executeUpdate();
+            PreparedStatement count = conn.prepare(SET_REPRICE_ROWS_SQL);
+            count.setInt(1, rows);
+            count.setLong(2, operationId);
+            count.executeUpdate();
+            PriceChanges changes = readPriceChanges(conn, NEW_PRICES_SQL, operationId, rows);
+            tx.commit();
+            updated = applyPriceChanges(changes);
+        } catch (InvalidTariffException e) {
+            metrics.recordError(Operation.REPRICE, e);
+            throw e;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.REPRICE, e);
+            throw new RuntimeException("Ошибка переоценки: " + e.getMessage(), e);
+        }
+        firePriceChanges(updated);
+        metrics.record(Operation.REPRICE, start, rows);
+        return new RepriceOperation(operationId, description, createdAt, rows, false);
+    }
+
+    // Возвращает строки переоценки к прежним ценам. Строки, изменённые после неё (вручную или
+    // другой переоценкой) или удалённые, не трогаются. Возвращает число восстановленных тарифов
+    public int undoReprice(long operationId) {
+        long start = AirportMetrics.start();
+        PriceChanges changes;
+        List<Tariff> updated;
+        try (ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            PreparedStatement select = conn.prepare(SELECT_REPRICE_SQL);
+            select.setLong(1, operationId);
+            int rows;
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalArgumentException("Нет переоценки с номером " + operationId);
+                }
+                if (rs.getInt(2) != 0) {
+                    throw new IllegalStateException("Переоценка " + operationId + " уже отменена");
+                }
+                rows = rs.getInt(1);
+            }
+            changes = readPriceChanges(conn, UNDO_PRICES_SQL, operationId, rows);
+            for (String sql : new String[]{UNDO_REPRICE_SQL, MARK_UNDONE_SQL, DELETE_JOURNAL_SQL}) {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setLong(1, operationId);
+                pstmt.executeUpdate();
+            }
+            tx.commit();
+            updated = applyPriceChanges(changes);
+        } catch (SQLException e) {
+            metrics.recordError(Operation.REPRICE, e);
+            throw new RuntimeException("Ошибка отмены переоценки: " + e.getMessage(), e);
+        }
+        firePriceChanges(updated);
+        metrics.record(Operation.REPRICE, start, changes.size());
+        return changes.size();
+    }
+
+    // Отменяет последнюю неотменённую переоценку; -1 — отменять нечего
+    public int undoLastReprice() {
+        for (RepriceOperation op : getRepriceHistory()) {
+            if (!op.undone()) {
+                return undoReprice(op.id());
+            }
+        }
+        return -1;
+    }
+
+    // Журнал переоценок, новые сверху
+    public List<RepriceOperation> getRepriceHistory() {
+        List<RepriceOperation> list = new ArrayList<>();
+        try (PooledConnection conn = pool.acquireReader();
+             ResultSet rs = conn.prepare(REPRICE_HISTORY_SQL).executeQuery()) {
+            while (rs.next()) {
+                list.add(new RepriceOperation(rs.getLong(1), rs.getString(2), rs.getLong(3),
+                        rs.getInt(4), rs.getInt(5) != 0));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка чтения журнала переоценок: " + e.getMessage(), e);
+        }
+        return list;
+    }
+
+    // Новая скидка по стратегии: базовые цены читаются из журнала, цены считаются одним пакетным
+    // вызовом DiscountStrategy, скидки записываются обратно в журнал пакетами
+    private static void computeDiscounts(PooledConnection conn, long operationId, int rows, DiscountStrategy strategy)
+            throws SQLException {
+        long[] ids = new long[rows];
+        double[] base = new double[rows];
+        PreparedStatement select = conn.prepare(JOURNAL_BASE_SQL);
+        select.setLong(1, operationId);
+        int n = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                ids[n] = rs.getLong(1);
+                base[n++] = rs.getDouble(2);
+            }
+        }
+        double[] prices = new double[n];
+        strategy.applyDiscount(base, prices, 0, n);
+        PreparedStatement update = conn.prepare(SET_JOURNAL_DISCOUNT_SQL);
+        for (int i = 0; i < n; i++) {
+            update.setDouble(1, base[i] - prices[i]);
+            update.setLong(2, operationId);
+            update.setLong(3, ids[i]);
+            update.addBatch();
+            if ((i + 1) % DEFAULT_BATCH_SIZE == 0) {
+                update.executeBatch();
+                checkCancelled();
+            }
+        }
+        update.executeBatch();
+    }
+
+    private static void checkPriceLimits(PooledConnection conn, long operationId)
+            throws SQLException, InvalidTariffException {
+        PreparedStatement check = conn.prepare(CHECK_REPRICE_SQL);
+        check.setLong(1, operationId);
+        try (ResultSet rs = check.executeQuery()) {
+            long invalid = rs.next() ? rs.getLong(1) : 0;
+            if (invalid > 0) {
+                throw new InvalidTariffException("После переоценки цена или скидка выйдет за пределы 0…10 млн у "
+                        + invalid + " тарифов (например, id " + rs.getLong(2) + ")");
+            }
+        }
+    }
+
+    // Новые цены строк: id, базовая цена, скидка — в порядке id
+    private record PriceChanges(long[] ids, double[] basePrices, double[] discounts) {
+        int size() {
+            return ids.length;
+        }
+    }
+
+    // sql выбирает (id, базовая цена, скидка) по номеру переоценки; строк не больше limit
+    private static PriceChanges readPriceChanges(PooledConnection conn, String sql, long operationId, int limit)
+            throws SQLException {
+        long[] ids = new long[limit];
+        double[] basePrices = new double[limit];
+        double[] discounts = new double[limit];
+        PreparedStatement pstmt = conn.prepare(sql);
+        pstmt.setLong(1, operationId);
+        int n = 0;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next() && n < limit) {
+                ids[n] = rs.getLong(1);
+                basePrices[n] = rs.getDouble(2);
+                discounts[n++] = rs.getDouble(3);
+            }
+        }
+        return new PriceChanges(Arrays.copyOf(ids, n), Arrays.copyOf(basePrices, n), Arrays.copyOf(discounts, n));
+    }
+
+    // Новые цены в кэш и статистику; вызывается сразу после фиксации, пока соединение писателя
+    // удерживается, чтобы версии кэша шли в порядке записей в БД. Возвращает изменённые тарифы
+    // или null, если их больше EVENT_TARIFFS_LIMIT: тогда firePriceChanges после try шлёт RELOADED
+    private List<Tariff> applyPriceChanges(PriceChanges changes) {
+        if (changes.size() == 0) {
+            return List.of();
+        }
+        boolean listed = changes.size() <= EVENT_TARIFFS_LIMIT;
+        List<Tariff> updated = new ArrayList<>(listed ? changes.size() : 0);
+        synchronized (writeLock) {
+            CacheEdit edit = new CacheEdit();
+            for (int i = 0; i < changes.size(); i++) {
+                int row = edit.store.indexOf(changes.ids()[i]);
+                if (row < 0) continue;
+                edit.untrack(row);
+                edit.store.setPrices(row, changes.basePrices()[i], changes.discounts()[i]);
+                edit.track(row);
+                if (listed) updated.add(edit.store.tariffAt(row));
+            }
+            edit.publish();
+        }
+        return listed ? updated : null;
+    }
+
+    // null — строк больше EVENT_TARIFFS_LIMIT, вместо перечисления приходит RELOADED
+    private void firePriceChanges(List<Tariff> updated) {
+        if (updated == null) {
+            fire(TariffChangeEvent.Type.RELOADED, List.of());
+        } else if (!updated.isEmpty()) {
+            fire(TariffChangeEvent.Type.UPDATED, updated);
+        }
+    }
+
+    // === Поиск по направлению ===
+    public DestinationIndex destinationIndex() {
+        return destinationIndex;
+    }
+
+    // id тарифов с найденными направлениями — один проход по колонке номеров направлений
+    public long[] findIds(DestinationIndex.Match match) {
+        long start = AirportMetrics.start();
+        TariffStore store = state.get().store();
+        boolean[] wanted = destinationMask(store, match.destinations());
+        int count = 0;
+        long[] ids = new long[16];
+        TariffStore.Cursor c = store.cursor();
+        while (c.next()) {
+            int code = c.destinationCode();
+            if (code < wanted.length && wanted[code]) {
+                if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+                ids[count++] = c.id();
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        metrics.record(Operation.QUERY, start, ids.length);
+        return ids;
+    }
+
+    // Сужение прежнего результата: из ids остаются тарифы с направлениями из match, без прохода по таблице
+    public long[] filterIds(long[] ids, DestinationIndex.Match match) {
+        long start = AirportMetrics.start();
+        long[] kept = new long[ids.length];
+        int count = 0;
+        TariffStore store = state.get().store();
+        boolean[] wanted = destinationMask(store, match.destinations());
+        for (long id : ids) {
+            int row = store.indexOf(id);
+            if (row >= 0) {
+                int code = store.destinationCode(row);
+                if (code < wanted.length && wanted[code]) kept[count++] = id;
+            }
+        }
+        metrics.record(Operation.QUERY, start, count);
+        return Arrays.copyOf(kept, count);
+    }
+
+    // Тарифы одного направления без учёта регистра и написания (как в DestinationIndex.normalize) —
+    // один проход по колонке номеров направлений
+    public List<Tariff> findByDestination(String destination) {
+        long start = AirportMetrics.start();
+        List<String> spellings = destinationIndex.spellings(destination);
+        List<Tariff> list = new ArrayList<>();
+        if (!spellings.isEmpty()) {
+            TariffStore store = state.get().store();
+            boolean[] wanted = destinationMask(store, spellings);
+            TariffStore.Cursor c = store.cursor();
+            while (c.next()) {
+                int code = c.destinationCode();
+                if (code < wanted.length && wanted[code]) list.add(c.toTariff());
+            }
+        }
+        metrics.record(Operation.QUERY, start, list.size());
+        return list;
+    }
+
+    // Словарь общий для версий и мог вырасти после чтения size(): такие номера в store не встречаются
+    private static boolean[] destinationMask(TariffStore store, List<String> destinations) {
+        DestinationDictionary dictionary = store.dictionary();
+        boolean[] wanted = new boolean[dictionary.size()];
+        for (String destination : destinations) {
+            int code = dictionary.find(destination);
+            if (code >= 0 && code < wanted.length) wanted[code] = true;
+        }
+        return wanted;
+    }
+
+    // Тарифы ids[from..to); удалённые к этому моменту пропускаются
+    public List<Tariff> getTariffsByIds(long[] ids, int from, int to) {
+        long start = AirportMetrics.start();
+        List<Tariff> list = new ArrayList<>(Math.max(0, to - from));
+        TariffStore store = state.get().store();
+        for (int i = from; i < to; i++) {
+            int row = store.indexOf(ids[i]);
+            if (row >= 0) list.add(store.tariffAt(row));
+        }
+        metrics.record(Operation.GET_TARIFFS, start, list.size());
+        return list;
+    }
+
+    // ids в порядке итоговой цены; удалённые тарифы оказываются в конце
+    public long[] sortIdsByFinalPrice(long[] ids, boolean ascending) {
+        double[] keys = new double[ids.length];
+        TariffStore store = state.get().store();
+        for (int i = 0; i < ids.length; i++) {
+            int row = store.indexOf(ids[i]);
+            double price = row >= 0 ? store.finalPrice(row) : Double.POSITIVE_INFINITY;
+            keys[i] = ascending || row < 0 ? price : -price;
+        }
+        int[] order = TariffStore.sortedOrder(keys);
+        long[] sorted = new long[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = ids[order[i]];
+        }
+        return sorted;
+    }
+
+    // Доступ к колонкам без копирования — для проходов и агрегатов по всей таблице.
+    // reader получает неизменяемую текущую версию и записи не задерживает
+    public <T> T readStore(Function<TariffStore, T> reader) {
+        return reader.apply(state.get().store());
+    }
+
+    // Превращение строк результата в объекты Tariff — отдельная метрика MATERIALIZE
+    private void readAll(ResultSet rs, List<Tariff> into) throws SQLException, InvalidTariffException {
+        long start = AirportMetrics.start();
+        int before = into.size();
+        while (rs.next()) {
+            into.add(readTariff(rs));
+        }
+        metrics.record(Operation.MATERIALIZE, start, into.size() - before);
+    }
+
+    // Подменяет кэш после массовой замены; вызывается при удержании соединения писателя.
+    // Читатели переходят на новое содержимое одной записью в state и частичного состояния не видят.
+    // Событие RELOADED не перечисляет тарифы — их миллионы; новое содержимое читается из Airport.
+    private void reload(TariffStore fresh) {
+        TariffStatistics freshStatistics = TariffStatistics.compute(fresh);
+        synchronized (writeLock) {
+            state.set(new State(fresh, freshStatistics));
+            destinationIndex.rebuild(fresh);
+        }
+        fire(TariffChangeEvent.Type.RELOADED, List.of());
+    }
+
+    // Кэш и индекс заново из БД, без события
+    private void rebuildCache() throws SQLException {
+        TariffStore fresh = loadAll();
+        TariffStatistics freshStatistics = TariffStatistics.compute(fresh);
+        synchronized (writeLock) {
+            state.set(new State(fresh, freshStatistics));
+            destinationIndex.rebuild(fresh);
+        }
+    }
+
+    private void fire(TariffChangeEvent.Type type, List<Tariff> tariffs) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TariffChangeEvent event = new TariffChangeEvent(type, tariffs);
+        for (TariffChangeListener listener : listeners) {
+            listener.tariffsChanged(event);
+        }
+    }
+
+    private static Tariff readTariff(ResultSet rs) throws SQLException, InvalidTariffException {
+        long id = rs.getLong("id");
+        String dest = rs.getString("destination");
+        double base = rs.getDouble("base_price");
+        double discount = rs.getDouble("discount");
+        DiscountStrategy strategy = (discount > 0) ? new FixedDiscount(discount) : NoDiscount.INSTANCE;
+        return new Tariff(id, dest, base, strategy);
     }
 
     // === TXT: экспорт и импорт ===
     public void saveToFile(String filename) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filename))) {
-            for (Tariff t : getTariffs()) {
-                double discount = t.getBasePrice() - t.getPrice();
-                writer.write(String.format("%s|%.2f|%.2f", t.getDestination(), t.getBasePrice(), discount));
-                writer.newLine();
+        if (TariffSnapshot.isSnapshot(filename)) {
+            saveSnapshot(Paths.get(filename));
+            return;
+        }
+        exportToFile(Paths.get(filename), isGzip(filename), ProgressListener.NONE);
+    }
+
+    // Потоковый экспорт: строки идут из курсора прямо в буферизованный поток,
+    // так что расход памяти не зависит от размера таблицы. Скидка берётся из БД как есть.
+    public long exportToFile(Path file, boolean gzip, ProgressListener progress) throws IOException {
+        long start = AirportMetrics.start();
+        try (PooledConnection conn = pool.acquireReader()) {
+            long total = (progress == ProgressListener.NONE) ? -1 : countRows(conn);
+            long written = writeReplacing(file, gzip, writer -> {
+                PreparedStatement pstmt = conn.prepare(EXPORT_SQL);
+                pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+                StringBuilder line = new StringBuilder(128);
+                long rows = 0;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        line.setLength(0);
+                        line.append(rs.getString(1)).append('|');
+                        PriceFormat.appendFixed2(line, rs.getDouble(2)).append('|');
+                        PriceFormat.appendFixed2(line, rs.getDouble(3)).append('\n');
+                        writer.append(line);
+                        if (++rows % EXPORT_FETCH_SIZE == 0) {
+                            checkCancelled();
+                            progress.onProgress(rows, total);
+                        }
+                    }
+                }
+                return rows;
+            });
+            progress.onProgress(written, written);
+            metrics.record(Operation.EXPORT, start, written);
+            return written;
+        } catch (IOException e) {
+            metrics.recordError(Operation.EXPORT, e);
+            throw e;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.EXPORT, e);
+            throw new RuntimeException("Ошибка экспорта тарифов: " + e.getMessage(), e);
+        }
+    }
+
+    private static long countRows(PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare(COUNT_SQL).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static OutputStream openOutput(Path file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (!gzip) {
+            return out;
+        }
+        try {
+            return new GZIPOutputStream(out, 1 << 16);
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    // Тело экспорта: пишет строки и возвращает результат; E — исключение источника строк (например, SQLException)
+    interface ExportBody<T, E extends Exception> {
+        T write(Writer writer) throws IOException, E;
+    }
+
+    // Экспорт пишется во временный файл рядом с целевым и переносится на место только после
+    // успешной записи (как TariffSnapshot.write): отменённый или упавший экспорт не оставляет
+    // обрезанный файл и не трогает прежний
+    static <T, E extends Exception> T writeReplacing(Path file, boolean gzip, ExportBody<T, E> body)
+            throws IOException, E {
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            T result;
+            try (OutputStream out = openOutput(tmp, gzip);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+                result = body.write(writer);
             }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } finally {
+            Files.deleteIfExists(tmp);
         }
     }
 
+    static boolean isGzip(String filename) {
+        return filename.toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
     public void loadFromFile(String filename) throws IOException, InvalidTariffException {
-        // Очистка БД
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute("DELETE FROM tariffs");
+        importFile(Paths.get(filename), ProgressListener.NONE);
+    }
+
+    public long importFile(Path file, ProgressListener progress) throws IOException, InvalidTariffException {
+        if (TariffDelta.isDelta(file.toString())) {
+            return applyDelta(file, progress).changes();
+        }
+        if (TariffSnapshot.isSnapshot(file.toString())) {
+            return loadSnapshot(file, progress);
+        }
+        if (isGzip(file.toString())) {
+            // сжатый файл нельзя отобразить в память — читаем потоком
+            return importFromFile(file, DEFAULT_BATCH_SIZE, progress);
+        }
+        return importParallel(file, DEFAULT_BATCH_SIZE, progress);
+    }
+
+    // Файл целиком разбирается параллельно (TariffFileParser), затем вставляется одной транзакцией.
+    // Быстрее потокового импорта на многоядерных машинах, но держит разобранные строки в памяти.
+    public long importParallel(Path file, int batchSize, ProgressListener progress)
+            throws IOException, InvalidTariffException {
+        long start = AirportMetrics.start();
+        TariffBatch batch;
+        try {
+            batch = TariffFileParser.parse(file);
+        } catch (IOException | InvalidTariffException e) {
+            metrics.recordError(Operation.PARSE, e);
+            throw e;
+        }
+        metrics.record(Operation.PARSE, start, batch.size());
+        checkCancelled();
+        return replaceAll(batch, batchSize, progress);
+    }
+
+    // === Дельта-экспорт по журналу изменений (TariffDelta) ===
+    // Номер последнего изменения в журнале; дельта «с отметки w» содержит всё, что изменилось после w
+    public long getChangeWatermark() {
+        try (PooledConnection conn = pool.acquireReader()) {
+            return changeWatermark(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка чтения журнала изменений: " + e.getMessage(), e);
+        }
+    }
+
+    // Изменения после отметки прошлого экспорта (хранится в БД); после записи файла отметка сдвигается
+    public TariffDelta exportDelta(Path file, ProgressListener progress) throws IOException {
+        long since;
+        try (PooledConnection conn = pool.acquireReader()) {
+            since = syncValue(conn, EXPORTED_KEY);
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка чтения журнала изменений: " + e.getMessage(), e);
+        }
+        TariffDelta delta = exportDelta(file, since, progress);
+        try (PooledConnection conn = pool.acquireWriter()) {
+            setSyncValue(conn, EXPORTED_KEY, delta.toWatermark());
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка записи отметки экспорта: " + e.getMessage(), e);
+        }
+        return delta;
+    }
+
+    // Пишет строки, изменённые после since: каждая один раз, в текущем виде, или D — если удалена.
+    // Время пропорционально числу изменений; если после since была полная замена таблицы
+    // или журнал уже очищен (trimChangeLog), выгружается вся таблица (full).
+    // Все запросы идут в одной читающей транзакции — отметка и строки из одного снимка БД
+    public TariffDelta exportDelta(Path file, long since, ProgressListener progress) throws IOException {
+        long start = AirportMetrics.start();
+        try (PooledConnection conn = pool.acquireReader()) {
+            conn.raw().setAutoCommit(false);
+            try {
+                TariffDelta delta = writeReplacing(file, isGzip(file.toString()), writer -> {
+                    long to = changeWatermark(conn);
+                    boolean full = since < lastReset(conn) || since < syncValue(conn, TRIMMED_KEY);
+                    writer.append(TariffDelta.HEADER).append('|').append(String.valueOf(TariffDelta.VERSION))
+                            .append('|').append(String.valueOf(since)).append('|').append(String.valueOf(to))
+                            .append('|').append(full ? "1" : "0").append('\n');
+                    PreparedStatement pstmt;
+                    if (full) {
+                        pstmt = conn.prepare(SELECT_ALL_SQL);
+                    } else {
+                        pstmt = conn.prepare(CHANGED_ROWS_SQL);
+                        pstmt.setLong(1, since);
+                    }
+                    pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+                    long upserts = 0;
+                    long deletes = 0;
+                    StringBuilder line = new StringBuilder(128);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            line.setLength(0);
+                            String destination = rs.getString(2);
+                            if (destination == null) {
+                                line.append("D|").append(rs.getLong(1)).append('\n');
+                                deletes++;
+                            } else {
+                                line.append("U|").append(rs.getLong(1)).append('|').append(destination).append('|');
+                                PriceFormat.appendFixed2(line, rs.getDouble(3)).append('|');
+                                PriceFormat.appendFixed2(line, rs.getDouble(4)).append('\n');
+                                upserts++;
+                            }
+                            writer.append(line);
+                            if ((upserts + deletes) % EXPORT_FETCH_SIZE == 0) {
+                                checkCancelled();
+                                progress.onProgress(upserts + deletes, -1);
+                            }
+                        }
+                    }
+                    return new TariffDelta(since, to, full, upserts, deletes);
+                });
+                progress.onProgress(delta.changes(), delta.changes());
+                metrics.record(Operation.EXPORT, start, delta.changes());
+                return delta;
+            } finally {
+                conn.raw().rollback();
+                conn.raw().setAutoCommit(true);
+            }
+        } catch (IOException e) {
+            metrics.recordError(Operation.EXPORT, e);
+            throw e;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.EXPORT, e);
+            throw new RuntimeException("Ошибка дельта-экспорта: " + e.getMessage(), e);
+        }
+    }
+
+    // Применяет дельту другой БД одной транзакцией. Частичная дельта должна начинаться с отметки,
+    // до которой уже применены изменения (иначе часть изменений потеряется) — это проверяется.
+    // Полная дельта заменяет таблицу. id тарифов сохраняются такими, как в исходной БД
+    public TariffDelta applyDelta(Path file, ProgressListener progress) throws IOException, InvalidTariffException {
+        long start = AirportMetrics.start();
+        long totalBytes = Files.size(file);
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             InputStream data = isGzip(file.toString()) ? new GZIPInputStream(in, 1 << 16) : in;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8), 1 << 16);
+             ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            String[] header = String.valueOf(reader.readLine()).split("\\|");
+            if (header.length != 5 || !header[0].equals(TariffDelta.HEADER)) {
+                throw new IOException("Файл не является дельтой тарифов: " + file.getFileName());
+            }
+            if (!header[1].equals(String.valueOf(TariffDelta.VERSION))) {
+                throw new IOException("Неподдерживаемая версия дельты: " + header[1]);
+            }
+            long from;
+            long to;
+            try {
+                from = Long.parseLong(header[2]);
+                to = Long.parseLong(header[3]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Повреждённый заголовок дельты: " + file.getFileName());
+            }
+            boolean full = header[4].equals("1");
+            long applied = syncValue(conn, APPLIED_KEY);
+            if (!full && from != applied) {
+                throw new IllegalStateException("Дельта начинается с отметки " + from
+                        + ", а применены изменения до отметки " + applied);
+            }
+            if (full) {
+                clearTariffs(conn);
+            }
+
+            PreparedStatement upsert = conn.prepare(UPSERT_SQL);
+            PreparedStatement delete = conn.prepare(DELETE_BY_ID_SQL);
+            TariffLineParser parser = new TariffLineParser();
+            // изменения для кэша запоминаются, только пока их немного; иначе кэш перечитывается
+            List<Tariff> upserted = new ArrayList<>();
+            List<Long> deleted = new ArrayList<>();
+            long upserts = 0;
+            long deletes = 0;
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                int idEnd = line.indexOf('|', 2);
+                long id;
+                try {
+                    id = Long.parseLong(line.substring(2, idEnd < 0 ? line.length() : idEnd));
+                } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                    throw new InvalidTariffException("Строка " + lineNumber + ": некорректный id");
+                }
+                if (line.startsWith("U|") && idEnd > 0 && parser.parse(line.substring(idEnd + 1), lineNumber)) {
+                    upsert.setLong(1, id);
+                    upsert.setString(2, parser.destination());
+                    upsert.setDouble(3, parser.basePrice());
+                    upsert.setDouble(4, parser.discount());
+                    upsert.addBatch();
+                    if (++upserts <= EVENT_TARIFFS_LIMIT) {
+                        DiscountStrategy strategy = parser.discount() > 0
+                                ? new FixedDiscount(parser.discount()) : NoDiscount.INSTANCE;
+                        upserted.add(new Tariff(id, parser.destination(), parser.basePrice(), strategy));
+                    }
+                } else if (line.startsWith("D|") && idEnd < 0) {
+                    delete.setLong(1, id);
+                    delete.addBatch();
+                    if (++deletes <= EVENT_TARIFFS_LIMIT) deleted.add(id);
+                } else {
+                    throw new InvalidTariffException("Строка " + lineNumber + ": некорректный формат строки дельты");
+                }
+                if ((upserts + deletes) % DEFAULT_BATCH_SIZE == 0) {
+                    upsert.executeBatch();
+                    delete.executeBatch();
+                    checkCancelled();
+                    progress.onProgress(in.count(), totalBytes);
+                }
+            }
+            upsert.executeBatch();
+            delete.executeBatch();
+            if (full) {
+                restoreChangeLog(conn);
+            }
+            setSyncValue(conn, APPLIED_KEY, to);
+            tx.commit();
+
+            boolean small = upserts + deletes <= EVENT_TARIFFS_LIMIT;
+            if (full || !small || !applyDeltaToCache(upserted, deleted)) {
+                reload(loadAll());
+            }
+            progress.onProgress(totalBytes, totalBytes);
+            metrics.record(Operation.IMPORT, start, upserts + deletes);
+            return new TariffDelta(from, to, full, upserts, deletes);
+        } catch (IOException | InvalidTariffException e) {
+            metrics.recordError(Operation.IMPORT, e);
+            throw e;
         } catch (SQLException e) {
-            throw new RuntimeException("Не удалось очистить БД", e);
+            metrics.recordError(Operation.IMPORT, e);
+            throw new RuntimeException("Ошибка применения дельты: " + e.getMessage(), e);
         }
+    }
+
+    // Удаляет из журнала изменения до отметки включительно — когда все получатели их забрали.
+    // Дельта с более ранней отметки после этого будет полной
+    public void trimChangeLog(long watermark) {
+        try (ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            PreparedStatement trim = conn.prepare(TRIM_CHANGES_SQL);
+            trim.setLong(1, watermark);
+            trim.executeUpdate();
+            setSyncValue(conn, TRIMMED_KEY, Math.max(watermark, syncValue(conn, TRIMMED_KEY)));
+            tx.commit();
+        } catch (SQLException e) {
+            throw new RuntimeException("Ошибка очистки журнала изменений: " + e.getMessage(), e);
+        }
+    }
+
+    // Небольшая дельта переносится в кэш без чтения таблицы. false — новый id не больше
+    // имеющихся (кэш упорядочен по id и дописывается только в конец): кэш нужно перечитать
+    private boolean applyDeltaToCache(List<Tariff> upserted, List<Long> deleted) {
+        List<Tariff> inserted = new ArrayList<>();
+        List<Tariff> updated = new ArrayList<>();
+        List<Tariff> removed = new ArrayList<>();
+        synchronized (writeLock) {
+            CacheEdit edit = new CacheEdit();
+            TariffStore store = edit.store;
+            long lastId = store.size() > 0 ? store.id(store.size() - 1) : 0;
+            for (Tariff t : upserted) {
+                if (store.indexOf(t.getId()) < 0) {
+                    if (t.getId() <= lastId) return false;
+                    lastId = t.getId();
+                }
+            }
+            for (long id : deleted) {
+                Tariff old = edit.removed(id);
+                if (old != null) removed.add(old);
+            }
+            for (Tariff t : upserted) {
+                if (store.indexOf(t.getId()) >= 0) {
+                    edit.updated(t);
+                    updated.add(t);
+                } else {
+                    edit.inserted(t);
+                    inserted.add(t);
+                }
+            }
+            edit.publish();
+        }
+        if (!removed.isEmpty()) fire(TariffChangeEvent.Type.REMOVED, removed);
+        if (!updated.isEmpty()) fire(TariffChangeEvent.Type.UPDATED, updated);
+        if (!inserted.isEmpty()) fire(TariffChangeEvent.Type.INSERTED, inserted);
+        return true;
+    }
+
+    private static long changeWatermark(PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare(WATERMARK_SQL).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static long lastReset(PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare(LAST_RESET_SQL).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static long syncValue(PooledConnection conn, String name) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(SYNC_VALUE_SQL);
+        pstmt.setString(1, name);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void setSyncValue(PooledConnection conn, String name, long value) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(SET_SYNC_VALUE_SQL);
+        pstmt.setString(1, name);
+        pstmt.setLong(2, value);
+        pstmt.executeUpdate();
+    }
+
+    // === Бинарный снапшот (TariffSnapshot) ===
+    // Пишется из текущей версии кэша — снимок на момент вызова; записи в это время не ждут
+    public long saveSnapshot(Path file) throws IOException {
+        long start = AirportMetrics.start();
+        try {
+            int[] rows = new int[1];
+            ByteBuffer data = readStore(store -> {
+                rows[0] = store.size();
+                return TariffSnapshot.encode(store);
+            });
+            TariffSnapshot.write(data, file);
+            metrics.record(Operation.EXPORT, start, rows[0]);
+            return rows[0];
+        } catch (IOException e) {
+            metrics.recordError(Operation.EXPORT, e);
+            throw e;
+        }
+    }
+
+    // Чтение снапшота занимает доли секунды и на миллионах строк; дальше — та же вставка, что и у TXT
+    public long loadSnapshot(Path file, ProgressListener progress) throws IOException, InvalidTariffException {
+        long start = AirportMetrics.start();
+        TariffBatch batch;
+        try {
+            batch = TariffSnapshot.read(file);
+        } catch (IOException | InvalidTariffException e) {
+            metrics.recordError(Operation.PARSE, e);
+            throw e;
+        }
+        metrics.record(Operation.PARSE, start, batch.size());
+        checkCancelled();
+        return replaceAll(batch, DEFAULT_BATCH_SIZE, progress);
+    }
+
+    // Заменяет содержимое таблицы набором строк; прогресс — в строках
+    public long replaceAll(TariffBatch batch, int batchSize, ProgressListener progress) {
+        long start = AirportMetrics.start();
+        try (ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            clearTariffs(conn);
+            TariffBatchInserter inserter = new TariffBatchInserter(conn.prepare(INSERT_SQL), batchSize);
+            for (int i = 0; i < batch.size(); i++) {
+                if (inserter.add(batch.destination(i), batch.basePrice(i), batch.discount(i))) {
+                    checkCancelled();
+                    progress.onProgress(inserter.inserted(), batch.size());
+                }
+            }
+            inserter.flush();
+            // В одной транзакции единственного писателя AUTOINCREMENT выдаёт id подряд
+            long firstId = lastInsertId(conn) - inserter.inserted() + 1;
+            restoreChangeLog(conn);
+            tx.commit();
+            TariffStore fresh = new TariffStore(batch.size());
+            fresh.appendAll(batch, firstId);
+            reload(fresh);
+            progress.onProgress(batch.size(), batch.size());
+            metrics.record(Operation.IMPORT, start, inserter.inserted());
+            return inserter.inserted();
+        } catch (SQLException e) {
+            metrics.recordError(Operation.IMPORT, e);
+            throw new RuntimeException("Ошибка импорта тарифов: " + e.getMessage(), e);
+        }
+    }
+
+    // Потоковый импорт с постоянным расходом памяти (и поддержкой .gz): файл читается построчно, строки вставляются пакетами через один INSERT.
+    // Очистка и вставка идут в одной транзакции — при ошибке в любой строке БД остаётся прежней.
+    public long importFromFile(Path file, int batchSize, ProgressListener progress)
+            throws IOException, InvalidTariffException {
+        long start = AirportMetrics.start();
+        long totalBytes = Files.size(file);
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             InputStream data = isGzip(file.toString()) ? new GZIPInputStream(in, 1 << 16) : in;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8), 1 << 16);
+             ConnectionPool.Transaction tx = pool.beginTransaction()) {
+            PooledConnection conn = tx.connection();
+            clearTariffs(conn);
+            TariffBatchInserter inserter = new TariffBatchInserter(conn.prepare(INSERT_SQL), batchSize);
+            TariffLineParser parser = new TariffLineParser();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (parser.parse(line, lineNumber)
+                        && inserter.add(parser.destination(), parser.basePrice(), parser.discount())) {
+                    checkCancelled();
+                    progress.onProgress(in.count(), totalBytes);
+                }
+            }
+            inserter.flush();
+            restoreChangeLog(conn);
+            tx.commit();
+            reload(loadAll());
+            progress.onProgress(totalBytes, totalBytes);
+            metrics.record(Operation.IMPORT, start, inserter.inserted());
+            return inserter.inserted();
+        } catch (IOException | InvalidTariffException e) {
+            metrics.recordError(Operation.IMPORT, e);
+            throw e;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.IMPORT, e);
+            throw new RuntimeException("Ошибка импорта тарифов: " + e.getMessage(), e);
+        }
+    }
+
+    // Полная замена таблицы: журнал переоценок к новым строкам уже не относится.
+    // Триггеры журнала изменений снимаются до restoreChangeLog: вместо записи на каждую из
+    // миллионов строк в журнал попадёт одна отметка о полной замене
+    private static void clearTariffs(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : DROP_CHANGE_LOG_TRIGGERS_SQL) {
+                stmt.execute(sql);
+            }
+            stmt.execute("DELETE FROM tariffs");
+            stmt.execute("DELETE FROM reprice_journal");
+            stmt.execute("DELETE FROM reprice_operations");
+        }
+    }
+
+    // Завершает массовую замену в той же транзакции: прежний журнал изменений заменяется отметкой
+    // о полной замене, триггеры возвращаются. Меняет last_insert_rowid() соединения
+    private static void restoreChangeLog(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM tariff_changes");
+            stmt.execute("INSERT INTO tariff_changes(tariff_id) VALUES (NULL)");
+            for (String sql : SchemaMigrator.CHANGE_LOG_TRIGGERS_SQL) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    // Длительные операции прерываются между пакетами; незавершённая транзакция откатывается
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Операция отменена");
+        }
+    }
 
-        // Загрузка из файла и вставка в БД
-        List<String> lines = Files.readAllLines(Paths.get(filename));
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            String[] parts = line.split("\\|");
-            if (parts.length != 3) {
-                throw new InvalidTariffException("Некорректный формат строки: " + line);
+    // Закрывает все соединения пула; после этого Airport использовать нельзя
+    @Override
+    public void close() {
+        pool.close();
+        metrics.unregister();
+        // -Dairport.metrics.dump=путь — выгрузить метрики при закрытии, например для разбора медленных операций
+        String dump = System.getProperty("airport.metrics.dump");
+        if (dump != null) {
+            try {
+                metrics.dump(Path.of(dump));
+            } catch (IOException e) {
+                System.err.println("Не удалось выгрузить метрики: " + e.getMessage());
             }
-            String destination = parts[0];
-            double basePrice = Double.parseDouble(parts[1].replace(',', '.'));
-            double discount = Double.parseDouble(parts[2].replace(',', '.'));
-            DiscountStrategy strategy = (discount > 0) ? new FixedDiscount(discount) : new NoDiscount();
-            addTariff(new Tariff(destination, basePrice, strategy));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+// src/airportapp/model/AirportMetrics.java
+package airportapp.model;
+
+import javax.management.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Счётчики и гистограммы задержек операций Airport. Запись (record/recordError) не выделяет памяти,
+// чтение (снимки, сводка, выгрузка) идёт по живым счётчикам и может немного отставать от записи.
+public final class AirportMetrics implements AirportMetricsMXBean {
+    public enum Operation {
+        ACQUIRE_WRITER("Ожидание писателя"),
+        ACQUIRE_READER("Ожидание читателя"),
+        ADD("Добавление"),
+        UPDATE("Изменение"),
+        REMOVE("Удаление"),
+        GET_TARIFFS("Чтение из кэша"),
+        FIND_MAX("Поиск максимума"),
+        QUERY("Выборка"),
+        STATISTICS("Статистика"),
+        REPRICE("Переоценка"),
+        GROUP_COMMIT("Групповая запись"),
+        MATERIALIZE("Чтение строк"),
+        PARSE("Разбор файла"),
+        IMPORT("Импорт"),
+        EXPORT("Экспорт");
+
+        private final String title;
+
+        Operation(String title) {
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    private static final class Counters {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rows = new AtomicLong();
+        volatile String lastError;
+    }
+
+    private final Map<Operation, Counters> counters = new EnumMap<>(Operation.class);
+    private ObjectName registeredName;
+
+    public AirportMetrics() {
+        for (Operation op : Operation.values()) {
+            counters.put(op, new Counters());
+        }
+    }
+
+    // Время начала операции для record
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public void record(Operation op, long startNanos, long rows) {
+        Counters c = counters.get(op);
+        c.latency.record(System.nanoTime() - startNanos);
+        if (rows != 0) c.rows.addAndGet(rows);
+    }
+
+    // Неудачная операция: считается отдельно, в гистограмму задержек не попадает
+    public void recordError(Operation op, Throwable error) {
+        Counters c = counters.get(op);
+        c.errors.incrementAndGet();
+        c.lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+    }
+
+    public LatencyHistogram histogram(Operation op) {
+        return counters.get(op).latency;
+    }
+
+    public OperationStats stats(Operation op) {
+        Counters c = counters.get(op);
+        LatencyHistogram h = c.latency;
+        return new OperationStats(op.name(), h.getCount(), c.errors.get(), c.rows.get(),
+                h.getMeanNanos() / 1e3, h.percentile(0.5) / 1e3, h.percentile(0.99) / 1e3,
+                h.getMaxNanos() / 1e3, c.lastError);
+    }
+
+    @Override
+    public List<OperationStats> getOperations() {
+        List<OperationStats> list = new ArrayList<>();
+        for (Operation op : Operation.values()) {
+            list.add(stats(op));
+        }
+        return list;
+    }
+
+    // Ожидание соединений не считается отдельной операцией — это часть остальных
+    @Override
+    public long getTotalOperations() {
+        long total = 0;
+        for (Operation op : Operation.values()) {
+            if (!isAcquire(op)) total += counters.get(op).latency.getCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.errors.get();
+        }
+        return total;
+    }
+
+    private static boolean isAcquire(Operation op) {
+        return op == Operation.ACQUIRE_WRITER || op == Operation.ACQUIRE_READER;
+    }
+
+    // Одна строка для строки состояния: число операций, ошибки и самая медленная операция по p99
+    @Override
+    public String getSummary() {
+        Operation slowest = null;
+        long slowestP99 = 0;
+        for (Operation op : Operation.values()) {
+            long p99 = counters.get(op).latency.percentile(0.99);
+            if (!isAcquire(op) && p99 > slowestP99) {
+                slowest = op;
+                slowestP99 = p99;
+            }
+        }
+        StringBuilder sb = new StringBuilder()
+                .append("Операций: ").append(getTotalOperations())
+                .append(", ошибок: ").append(getTotalErrors());
+        if (slowest != null) {
+            sb.append(", медленнее всего: ").append(slowest.getTitle().toLowerCase(Locale.ROOT))
+              .append(" (p99 ").append(formatNanos(slowestP99)).append(')');
+        }
+        return sb.toString();
+    }
+
+    // Таблица по операциям: для подсказки в окне и для выгрузки
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-20s %9s %7s %11s %10s %10s %10s %10s%n",
+                "Операция", "Число", "Ошибок", "Строк", "Среднее", "p50", "p99", "Макс."));
+        for (Operation op : Operation.values()) {
+            Counters c = counters.get(op);
+            LatencyHistogram h = c.latency;
+            if (h.getCount() == 0 && c.errors.get() == 0) continue;
+            sb.append(String.format(Locale.ROOT, "%-20s %9d %7d %11d %10s %10s %10s %10s%n",
+                    op.getTitle(), h.getCount(), c.errors.get(), c.rows.get(),
+                    formatNanos((long) h.getMeanNanos()), formatNanos(h.percentile(0.5)),
+                    formatNanos(h.percentile(0.99)), formatNanos(h.getMaxNanos())));
+        }
+        return sb.toString();
+    }
+
+    // Полная выгрузка: сводная таблица, последние ошибки и непустые корзины гистограмм
+    @Override
+    public void dumpTo(String file) throws IOException {
+        dump(Path.of(file));
+    }
+
+    public void dump(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("Метрики Airport на " + LocalDateTime.now());
+            out.println();
+            out.print(report());
+            for (Operation op : Operation.values()) {
+                Counters c = counters.get(op);
+                if (c.lastError != null) {
+                    out.println();
+                    out.println(op.getTitle() + " — последняя ошибка: " + c.lastError);
+                }
+            }
+            for (Operation op : Operation.values()) {
+                long[][] buckets = counters.get(op).latency.nonEmptyBuckets();
+                if (buckets.length == 0) continue;
+                out.println();
+                out.println(op.name() + " (нс, число)");
+                for (long[] b : buckets) {
+                    out.println(b[0] + "\t" + b[1]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (Counters c : counters.values()) {
+            c.latency.reset();
+            c.errors.set(0);
+            c.rows.set(0);
+            c.lastError = null;
+        }
+    }
+
+    public static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + " нс";
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1f мкс", nanos / 1e3);
+        if (nanos < 1_000_000_000) return String.format(Locale.ROOT, "%.1f мс", nanos / 1e6);
+        return String.format(Locale.ROOT, "%.2f с", nanos / 1e9);
+    }
+
+    // Регистрирует метрики в платформенном MBeanServer; при совпадении имён добавляется номер
+    synchronized void register(String database) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (int n = 1; registeredName == null; n++) {
+            try {
+                String name = n == 1 ? database : database + " #" + n;
+                ObjectName objectName = new ObjectName("airportapp:type=AirportMetrics,name=" + ObjectName.quote(name));
+                server.registerMBean(this, objectName);
+                registeredName = objectName;
+            } catch (InstanceAlreadyExistsException e) {
+                // имя занято другим Airport над той же БД — пробуем следующее
+            } catch (JMException e) {
+                // без JMX приложение работает как прежде
+                return;
+            }
+        }
+    }
+
+    synchronized void unregister() {
+        if (registeredName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException ignored) {
+            // уже снят
+        }
+        registeredName = null;
+    }
+}
@@ -0,0 +1,20 @@
+// src/airportapp/model/AirportMetricsMXBean.java
+package airportapp.model;
+
+import java.io.IOException;
+import java.util.List;
+
+// Метрики Airport в JMX (jconsole, VisualVM): объект airportapp:type=AirportMetrics
+public interface AirportMetricsMXBean {
+    List<OperationStats> getOperations();
+
+    long getTotalOperations();
+
+    long getTotalErrors();
+
+    String getSummary();
+
+    void reset();
+
+    void dumpTo(String file) throws IOException;
+}
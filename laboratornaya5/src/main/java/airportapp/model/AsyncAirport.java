@@ -0,0 +1,176 @@
+// src/airportapp/model/AsyncAirport.java
+package airportapp.model;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Асинхронный фасад над Airport: каждая операция выполняется в своём виртуальном потоке
+// и возвращает CompletableFuture. cancel(true) у результата прерывает поток, а длительные
+// операции (импорт, экспорт) проверяют прерывание между пакетами и откатывают транзакцию.
+public class AsyncAirport implements AutoCloseable {
+    private final Airport airport;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AsyncAirport(Airport airport) {
+        this.airport = airport;
+    }
+
+    // Открытие БД и чтение кэша в виртуальном потоке — вызывающий (окно) не ждёт их
+    public static CompletableFuture<AsyncAirport> open() {
+        CompletableFuture<AsyncAirport> opened = new CompletableFuture<>();
+        Thread.ofVirtual().name("airport-open").start(() -> {
+            try {
+                opened.complete(new AsyncAirport(new Airport()));
+            } catch (Throwable e) {
+                opened.completeExceptionally(e);
+            }
+        });
+        return opened;
+    }
+
+    public Airport airport() {
+        return airport;
+    }
+
+    public CompletableFuture<Tariff> addTariff(Tariff tariff) {
+        return submit(() -> airport.addTariff(tariff));
+    }
+
+    public CompletableFuture<Tariff> updateTariff(long id, Tariff updated) {
+        return submit(() -> airport.updateTariff(id, updated));
+    }
+
+    public CompletableFuture<Boolean> removeTariff(Tariff tariff) {
+        return submit(() -> airport.removeTariff(tariff));
+    }
+
+    public CompletableFuture<List<Tariff>> getTariffs() {
+        return submit(airport::getTariffs);
+    }
+
+    public CompletableFuture<List<Tariff>> query(TariffQuery query) {
+        return submit(() -> airport.query(query));
+    }
+
+    public CompletableFuture<Tariff> findMaxPriceTariff() {
+        return submit(airport::findMaxPriceTariff);
+    }
+
+    public CompletableFuture<RepriceOperation> reprice(BulkReprice op) {
+        return submit(() -> airport.reprice(op));
+    }
+
+    public CompletableFuture<Integer> undoLastReprice() {
+        return submit(airport::undoLastReprice);
+    }
+
+    public CompletableFuture<TariffStatistics.Snapshot> statistics() {
+        return submit(airport::getStatistics);
+    }
+
+    public CompletableFuture<DestinationFilter.Result> filter(DestinationFilter filter, String query) {
+        return submit(() -> filter.apply(query));
+    }
+
+    public CompletableFuture<List<Tariff>> getTariffsByIds(long[] ids, int from, int to) {
+        return submit(() -> airport.getTariffsByIds(ids, from, to));
+    }
+
+    public CompletableFuture<long[]> sortIdsByFinalPrice(long[] ids, boolean ascending) {
+        return submit(() -> airport.sortIdsByFinalPrice(ids, ascending));
+    }
+
+    public CompletableFuture<Long> loadFromFile(Path file, ProgressListener progress) {
+        return submit(() -> airport.importFile(file, progress));
+    }
+
+    // Формат выбирается по расширению: *.tdelta — изменения с прошлого дельта-экспорта,
+    // *.tsnap — бинарный снапшот, *.gz — сжатый TXT, иначе TXT
+    public CompletableFuture<Long> saveToFile(Path file, ProgressListener progress) {
+        if (TariffDelta.isDelta(file.toString())) {
+            return submit(() -> airport.exportDelta(file, progress).changes());
+        }
+        if (TariffSnapshot.isSnapshot(file.toString())) {
+            return submit(() -> airport.saveSnapshot(file));
+        }
+        return submit(() -> airport.exportToFile(file, Airport.isGzip(file.toString()), progress));
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work) {
+        Task<T> task = new Task<>();
+        task.worker = executor.submit(() -> {
+            if (!task.started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                T result = work.call();
+                task.complete(result);
+                task.finished.complete(true);
+            } catch (Throwable e) {
+                task.completeExceptionally(e);
+                task.finished.complete(false);
+            }
+        });
+        return task;
+    }
+
+    // Когда операция действительно остановилась: true — дошла до конца (транзакция зафиксирована,
+    // файл записан), false — упала или прервана до фиксации. Отменённый результат завершается сразу,
+    // а поток ещё может дойти до commit — о результате отмены судим только по этому признаку
+    public static CompletableFuture<Boolean> finished(CompletableFuture<?> future) {
+        if (future instanceof Task<?> task) {
+            return task.finished;
+        }
+        return future.handle((value, error) -> error == null);
+    }
+
+    // Дожидается текущих операций (не дольше timeout) и закрывает Airport
+    public void close(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            airport.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(10, TimeUnit.SECONDS);
+    }
+
+    // Отмена результата прерывает виртуальный поток, выполняющий операцию.
+    // Если поток ещё не начал работу, он её уже не начнёт, и finished сразу получает false
+    private static final class Task<T> extends CompletableFuture<T> {
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<Boolean> finished = new CompletableFuture<>();
+        private volatile Future<?> worker;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                if (started.compareAndSet(false, true)) {
+                    finished.complete(false);
+                }
+                Future<?> w = worker;
+                if (w != null) {
+                    w.cancel(true);
+                }
+            }
+            return cancelled;
+        }
+    }
+}
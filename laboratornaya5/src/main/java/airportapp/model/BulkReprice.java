@@ -0,0 +1,178 @@
+// src/airportapp/model/BulkReprice.java
+package airportapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Массовая переоценка: что меняется и у каких тарифов. Неизменяемая, как TariffQuery;
+// выполняется через Airport.reprice одним UPDATE, отменяется через Airport.undoReprice.
+// Новые значения по-прежнему укладываются в ограничения Tariff и FixedDiscount — это
+// проверяется для всех затронутых строк до записи, иначе переоценка не выполняется целиком.
+public final class BulkReprice {
+    public enum Kind {
+        // базовая цена умножается на (1 + value / 100), скидка не больше новой цены
+        SCALE_BASE_PRICE,
+        // скидка value рублей (не больше базовой цены)
+        SET_DISCOUNT,
+        // итоговая цена не выше value: недостающее добавляется к скидке
+        CAP_FINAL_PRICE,
+        // итоговая цена по стратегии скидки от базовой цены; считается пакетно в памяти
+        APPLY_STRATEGY
+    }
+
+    private final Kind kind;
+    private final double value;
+    private final DiscountStrategy strategy;
+    private final String destinationPrefix;
+    private final Double minBasePrice;
+    private final Double maxBasePrice;
+
+    private BulkReprice(Kind kind, double value, DiscountStrategy strategy,
+                        String destinationPrefix, Double minBasePrice, Double maxBasePrice) {
+        this.kind = kind;
+        this.value = value;
+        this.strategy = strategy;
+        this.destinationPrefix = destinationPrefix;
+        this.minBasePrice = minBasePrice;
+        this.maxBasePrice = maxBasePrice;
+    }
+
+    // percent может быть отрицательным (снижение), но не ниже -100
+    public static BulkReprice scaleBasePrice(double percent) throws InvalidTariffException {
+        if (!Double.isFinite(percent) || percent < -100) {
+            throw new InvalidTariffException("Изменение цены должно быть не меньше -100%");
+        }
+        return new BulkReprice(Kind.SCALE_BASE_PRICE, percent, null, null, null, null);
+    }
+
+    public static BulkReprice setDiscount(double amount) throws InvalidTariffException {
+        FixedDiscount.checkAmount(amount);
+        return new BulkReprice(Kind.SET_DISCOUNT, amount, null, null, null, null);
+    }
+
+    public static BulkReprice capFinalPrice(double maxPrice) throws InvalidTariffException {
+        Tariff.checkBasePrice(maxPrice);
+        return new BulkReprice(Kind.CAP_FINAL_PRICE, maxPrice, null, null, null, null);
+    }
+
+    public static BulkReprice applyDiscount(DiscountStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Не задана стратегия скидки");
+        }
+        return new BulkReprice(Kind.APPLY_STRATEGY, 0, strategy, null, null, null);
+    }
+
+    // Направление начинается с prefix без учёта регистра (латиница) — как в TariffQuery
+    public BulkReprice destinationStartsWith(String prefix) {
+        String p = (prefix == null || prefix.isBlank()) ? null : prefix.trim();
+        return new BulkReprice(kind, value, strategy, p, minBasePrice, maxBasePrice);
+    }
+
+    // Границы включительно; null — без ограничения
+    public BulkReprice basePriceBetween(Double min, Double max) {
+        return new BulkReprice(kind, value, strategy, destinationPrefix, min, max);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public DiscountStrategy getStrategy() {
+        return strategy;
+    }
+
+    public String getDestinationPrefix() {
+        return destinationPrefix;
+    }
+
+    public Double getMinBasePrice() {
+        return minBasePrice;
+    }
+
+    public Double getMaxBasePrice() {
+        return maxBasePrice;
+    }
+
+    // Новые значения считаются в SQL; для APPLY_STRATEGY скидку досчитывает Airport
+    boolean computedInSql() {
+        return kind != Kind.APPLY_STRATEGY;
+    }
+
+    // Выражение новой базовой цены по колонкам старой строки
+    String newBaseSql(List<Object> params) {
+        if (kind == Kind.SCALE_BASE_PRICE) {
+            params.add(1 + value / 100);
+            return "ROUND(base_price * ?, 2)";
+        }
+        return "base_price";
+    }
+
+    // Выражение новой скидки; скидка не превышает базовую цену, как после FixedDiscount
+    String newDiscountSql(List<Object> params) {
+        switch (kind) {
+            case SCALE_BASE_PRICE -> {
+                params.add(1 + value / 100);
+                return "MIN(discount, ROUND(base_price * ?, 2))";
+            }
+            case SET_DISCOUNT -> {
+                params.add(value);
+                return "MIN(?, base_price)";
+            }
+            case CAP_FINAL_PRICE -> {
+                params.add(value);
+                return "MAX(discount, base_price - ?)";
+            }
+            default -> {
+                return "discount";
+            }
+        }
+    }
+
+    // Условие отбора строк: пустая строка или " WHERE ..."
+    String whereSql(List<Object> params) {
+        List<String> where = new ArrayList<>();
+        if (destinationPrefix != null) {
+            where.add("destination LIKE ? ESCAPE '\\'");
+            params.add(TariffQuery.escapeLike(destinationPrefix) + "%");
+        }
+        if (minBasePrice != null) {
+            where.add("base_price >= ?");
+            params.add(minBasePrice);
+        }
+        if (maxBasePrice != null) {
+            where.add("base_price <= ?");
+            params.add(maxBasePrice);
+        }
+        return where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where);
+    }
+
+    // Описание для журнала переоценок
+    public String describe() {
+        StringBuilder sb = new StringBuilder(switch (kind) {
+            case SCALE_BASE_PRICE -> String.format(Locale.ROOT, "Базовая цена %+.2f%%", value);
+            case SET_DISCOUNT -> "Скидка " + PriceFormat.format(value) + " руб.";
+            case CAP_FINAL_PRICE -> "Итоговая цена не выше " + PriceFormat.format(value);
+            case APPLY_STRATEGY -> "Скидка: " + strategy.getClass().getSimpleName();
+        });
+        if (destinationPrefix != null) {
+            sb.append(", направление «").append(destinationPrefix).append("…»");
+        }
+        if (minBasePrice != null) {
+            sb.append(", базовая цена от ").append(PriceFormat.format(minBasePrice));
+        }
+        if (maxBasePrice != null) {
+            sb.append(", базовая цена до ").append(PriceFormat.format(maxBasePrice));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
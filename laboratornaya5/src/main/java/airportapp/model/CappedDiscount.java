@@ -0,0 +1,42 @@
+// src/airportapp/model/CappedDiscount.java
+package airportapp.model;
+
+import java.util.Arrays;
+
+// Ограничивает скидку другой стратегии суммой maxDiscount: например, «10%, но не больше 5000»
+public class CappedDiscount implements DiscountStrategy {
+    private final DiscountStrategy inner;
+    private final double maxDiscount;
+
+    public CappedDiscount(DiscountStrategy inner, double maxDiscount) throws InvalidTariffException {
+        if (inner == null) {
+            throw new InvalidTariffException("Не задана ограничиваемая скидка");
+        }
+        FixedDiscount.checkAmount(maxDiscount);
+        this.inner = inner;
+        this.maxDiscount = maxDiscount;
+    }
+
+    @Override
+    public double applyDiscount(double basePrice) {
+        return Math.max(inner.applyDiscount(basePrice), basePrice - maxDiscount);
+    }
+
+    @Override
+    public void applyDiscount(double[] base, double[] out, int from, int to) {
+        // при расчёте на месте исходные цены нужны после внутренней стратегии
+        if (base == out) {
+            base = Arrays.copyOf(base, to);
+        }
+        inner.applyDiscount(base, out, from, to);
+        PriceKernels.capDiscount(base, out, from, to, maxDiscount);
+    }
+
+    public DiscountStrategy getInner() {
+        return inner;
+    }
+
+    public double getMaxDiscount() {
+        return maxDiscount;
+    }
+}
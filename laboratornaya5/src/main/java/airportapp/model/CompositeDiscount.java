@@ -0,0 +1,49 @@
+// src/airportapp/model/CompositeDiscount.java
+package airportapp.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Цепочка скидок: каждая следующая применяется к цене после предыдущей.
+// Например, сезонные 10%, затем фиксированные 500 по промокоду.
+public class CompositeDiscount implements DiscountStrategy {
+    private final List<DiscountStrategy> chain;
+
+    public CompositeDiscount(List<DiscountStrategy> chain) throws InvalidTariffException {
+        if (chain.isEmpty()) {
+            throw new InvalidTariffException("Цепочка скидок не может быть пустой");
+        }
+        for (DiscountStrategy s : chain) {
+            if (s == null) {
+                throw new InvalidTariffException("В цепочке скидок не задана стратегия");
+            }
+        }
+        this.chain = List.copyOf(chain);
+    }
+
+    public CompositeDiscount(DiscountStrategy... chain) throws InvalidTariffException {
+        this(Arrays.asList(chain));
+    }
+
+    @Override
+    public double applyDiscount(double basePrice) {
+        double price = basePrice;
+        for (DiscountStrategy s : chain) {
+            price = s.applyDiscount(price);
+        }
+        return price;
+    }
+
+    // Первая стратегия пишет в out, остальные пересчитывают out на месте
+    @Override
+    public void applyDiscount(double[] base, double[] out, int from, int to) {
+        chain.get(0).applyDiscount(base, out, from, to);
+        for (int k = 1; k < chain.size(); k++) {
+            chain.get(k).applyDiscount(out, out, from, to);
+        }
+    }
+
+    public List<DiscountStrategy> getChain() {
+        return chain;
+    }
+}
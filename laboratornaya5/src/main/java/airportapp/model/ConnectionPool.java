@@ -0,0 +1,219 @@
+// src/airportapp/model/ConnectionPool.java
+package airportapp.model;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Пул долгоживущих соединений SQLite: один писатель и несколько читателей.
+// В режиме WAL читатели не блокируют писателя и друг друга, а писатель в SQLite всё равно один,
+// поэтому вместо общего пула запись идёт через единственное соединение под замком.
+public class ConnectionPool implements AutoCloseable {
+    private final DbConfig config;
+    private final AirportMetrics metrics;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final PooledConnection writer;
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+    private volatile boolean closed;
+
+    public ConnectionPool(DbConfig config) throws SQLException {
+        this(config, new AirportMetrics());
+    }
+
+    // Время ожидания соединений попадает в metrics (ACQUIRE_WRITER, ACQUIRE_READER)
+    public ConnectionPool(DbConfig config, AirportMetrics metrics) throws SQLException {
+        this.config = config;
+        this.metrics = metrics;
+        this.idleReaders = new ArrayBlockingQueue<>(config.maxReaders());
+        Connection conn = open();
+        try (Statement stmt = conn.createStatement()) {
+            // journal_mode сохраняется в файле БД, его достаточно выставить один раз
+            stmt.execute("PRAGMA journal_mode=WAL");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        this.writer = new PooledConnection(conn, c -> writeLock.unlock());
+    }
+
+    public DbConfig getConfig() {
+        return config;
+    }
+
+    public AirportMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Соединение для записи; удерживается эксклюзивно до close()
+    public PooledConnection acquireWriter() {
+        ensureOpen();
+        long start = AirportMetrics.start();
+        writeLock.lock();
+        metrics.record(AirportMetrics.Operation.ACQUIRE_WRITER, start, 0);
+        return writer;
+    }
+
+    // Соединение для чтения; новые открываются по требованию, но не больше maxReaders
+    public PooledConnection acquireReader() throws SQLException {
+        ensureOpen();
+        long start = AirportMetrics.start();
+        PooledConnection conn = idleReaders.poll();
+        if (conn == null) {
+            synchronized (allReaders) {
+                if (allReaders.size() < config.maxReaders()) {
+                    conn = new PooledConnection(open(), this::releaseReader);
+                    allReaders.add(conn);
+                }
+            }
+        }
+        try {
+            if (conn == null) {
+                conn = idleReaders.take();
+            }
+            metrics.record(AirportMetrics.Operation.ACQUIRE_READER, start, 0);
+            return conn;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения прервано", e);
+        }
+    }
+
+    public Transaction beginTransaction() throws SQLException {
+        return begin(null);
+    }
+
+    // Транзакция, commit() которой возвращается только после fsync журнала WAL (synchronous=FULL),
+    // даже если для БД задан NORMAL: зафиксированное переживает и отключение питания.
+    // После транзакции соединению писателя возвращается настройка из DbConfig
+    public Transaction beginDurableTransaction() throws SQLException {
+        String configured = config.synchronous().toUpperCase(Locale.ROOT);
+        boolean durable = configured.equals("FULL") || configured.equals("EXTRA")
+                || configured.equals("2") || configured.equals("3");
+        return begin(durable ? null : config.synchronous());
+    }
+
+    private Transaction begin(String restoreSynchronous) throws SQLException {
+        PooledConnection conn = acquireWriter();
+        try {
+            if (restoreSynchronous != null) {
+                // synchronous нельзя менять внутри транзакции
+                try (Statement stmt = conn.raw().createStatement()) {
+                    stmt.execute("PRAGMA synchronous=FULL");
+                }
+            }
+            conn.raw().setAutoCommit(false);
+        } catch (SQLException e) {
+            try {
+                restoreSynchronous(conn, restoreSynchronous);
+            } finally {
+                conn.close();
+            }
+            throw e;
+        }
+        return new Transaction(conn, restoreSynchronous);
+    }
+
+    private static void restoreSynchronous(PooledConnection conn, String synchronous) throws SQLException {
+        if (synchronous == null) {
+            return;
+        }
+        try (Statement stmt = conn.raw().createStatement()) {
+            stmt.execute("PRAGMA synchronous=" + synchronous);
+        }
+    }
+
+    private void releaseReader(PooledConnection conn) {
+        if (closed) {
+            conn.closePhysically();
+        } else {
+            idleReaders.offer(conn);
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Connection conn = DriverManager.getConnection(config.url());
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout=" + config.busyTimeoutMs());
+            stmt.execute("PRAGMA synchronous=" + config.synchronous());
+            // отрицательное значение cache_size задаётся в килобайтах, а не в страницах
+            stmt.execute("PRAGMA cache_size=-" + config.cacheSizeKb());
+            stmt.execute("PRAGMA mmap_size=" + config.mmapSize());
+            stmt.execute("PRAGMA temp_store=MEMORY");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Пул соединений закрыт");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeLock.lock();
+        try {
+            writer.closePhysically();
+        } finally {
+            writeLock.unlock();
+        }
+        // занятые читатели закроются сами при возврате в пул
+        PooledConnection conn;
+        while ((conn = idleReaders.poll()) != null) {
+            conn.closePhysically();
+        }
+    }
+
+    // Транзакция на соединении писателя: без commit() изменения откатываются в close()
+    public static final class Transaction implements AutoCloseable {
+        private final PooledConnection conn;
+        // не null — после транзакции вернуть соединению эту настройку synchronous
+        private final String restoreSynchronous;
+        private boolean finished;
+
+        private Transaction(PooledConnection conn, String restoreSynchronous) {
+            this.conn = conn;
+            this.restoreSynchronous = restoreSynchronous;
+        }
+
+        public PooledConnection connection() {
+            return conn;
+        }
+
+        public void commit() throws SQLException {
+            conn.raw().commit();
+            finished = true;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (!finished) {
+                    conn.raw().rollback();
+                }
+            } finally {
+                try {
+                    conn.raw().setAutoCommit(true);
+                    restoreSynchronous(conn, restoreSynchronous);
+                } finally {
+                    conn.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+// src/airportapp/model/DbConfig.java
+package airportapp.model;
+
+// Параметры подключения к SQLite: число соединений-читателей и PRAGMA-настройки.
+// Любое значение можно переопределить системным свойством, например -Dairport.db.synchronous=FULL
+public record DbConfig(String url,
+                       int maxReaders,
+                       String synchronous,
+                       int cacheSizeKb,
+                       long mmapSize,
+                       int busyTimeoutMs) {
+
+    public DbConfig {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("Не задан URL базы данных");
+        }
+        if (maxReaders < 1) {
+            throw new IllegalArgumentException("Нужен хотя бы один читатель");
+        }
+    }
+
+    public static DbConfig forUrl(String url) {
+        return new DbConfig(
+                url,
+                Integer.getInteger("airport.db.readers", Math.max(2, Runtime.getRuntime().availableProcessors())),
+                System.getProperty("airport.db.synchronous", "NORMAL"),
+                Integer.getInteger("airport.db.cacheSizeKb", 64 * 1024),
+                Long.getLong("airport.db.mmapSize", 256L * 1024 * 1024),
+                Integer.getInteger("airport.db.busyTimeoutMs", 5000));
+    }
+}
@@ -0,0 +1,49 @@
+// src/airportapp/model/DestinationDictionary.java
+package airportapp.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Таблица направлений для колоночного хранилища: каждое различное направление хранится один раз,
+// а строки ссылаются на него номером. Направлений обычно тысячи при миллионах тарифов.
+// Номера только добавляются: удалённые направления остаются в таблице до пересоздания хранилища.
+// Таблица общая для всех версий TariffStore: добавляет один писатель, а читатели любых версий
+// ищут и декодируют без замков — им нужны только номера, добавленные до публикации их версии.
+public final class DestinationDictionary {
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private volatile int size;
+
+    // Номер направления; новое направление добавляется в таблицу
+    public int encode(String destination) {
+        Integer known = codes.get(destination);
+        if (known != null) {
+            return known;
+        }
+        int code = size;
+        String[] table = values;
+        if (code == table.length) {
+            table = Arrays.copyOf(table, code * 2);
+        }
+        table[code] = destination;
+        values = table;
+        codes.put(destination, code);
+        size = code + 1;
+        return code;
+    }
+
+    // Номер или -1, если такого направления нет
+    public int find(String destination) {
+        Integer code = codes.get(destination);
+        return code == null ? -1 : code;
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    public int size() {
+        return size;
+    }
+}
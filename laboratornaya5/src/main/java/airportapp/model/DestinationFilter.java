@@ -0,0 +1,34 @@
+// src/airportapp/model/DestinationFilter.java
+package airportapp.model;
+
+// Фильтр по направлению для одного поля ввода. Помнит предыдущий результат: если новый запрос
+// уточняет прежний и данные не менялись, и направления, и id тарифов сужаются из прежнего
+// результата, без повторного обхода индекса и таблицы.
+public final class DestinationFilter {
+    // ids — id найденных тарифов по возрастанию; narrowed — результат получен сужением прежнего
+    public record Result(String query, long[] ids, int destinations, boolean narrowed) {}
+
+    private final Airport airport;
+    private DestinationIndex.Match lastMatch;
+    private long[] lastIds;
+
+    public DestinationFilter(Airport airport) {
+        this.airport = airport;
+    }
+
+    public synchronized Result apply(String query) {
+        DestinationIndex index = airport.destinationIndex();
+        DestinationIndex.Match match = index.search(query, lastMatch);
+        // тот же номер версии индекса — значит, с прошлого запроса тарифы не добавлялись и не удалялись
+        boolean narrowed = lastMatch != null && match != lastMatch && match.isRefinementOf(lastMatch);
+        long[] ids = narrowed ? airport.filterIds(lastIds, match) : airport.findIds(match);
+        lastMatch = match;
+        lastIds = ids;
+        return new Result(match.getQuery(), ids, match.getHits().size(), narrowed);
+    }
+
+    public synchronized void reset() {
+        lastMatch = null;
+        lastIds = null;
+    }
+}
@@ -0,0 +1,263 @@
+// src/airportapp/model/DestinationIndex.java
+package airportapp.model;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Поисковый индекс направлений для фильтра в главном окне. Хранит различные направления
+// (со счётчиком тарифов на каждое) и обновляется при каждом добавлении и удалении в Airport.
+//  - запрос короче 3 символов ищется по началу направления через отсортированную карту;
+//  - запрос от 3 символов — как подстрока: кандидаты берутся из самого короткого списка
+//    по триграммам запроса и проверяются целиком.
+// Сравнение идёт по нормализованной форме (normalize): без учёта регистра, ё = е, все виды
+// апострофов и дефисов, которые допускает TariffEditDialog, приводятся к одному символу.
+public final class DestinationIndex {
+    private static final int TRIGRAM_MIN = 3;
+    private static final AtomicLong SERIAL = new AtomicLong();
+
+    // Одно нормализованное направление и все его исходные написания со счётчиками тарифов
+    private static final class Entry {
+        final String key;
+        final Map<String, Integer> spellings = new HashMap<>(2);
+
+        Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    // Найденное направление: нормализованный ключ и исходные написания, как они хранятся в БД
+    public record Hit(String key, List<String> destinations) {}
+
+    // Результат поиска; из него следующий, более узкий запрос считается без обхода индекса
+    public static final class Match {
+        private final String query;
+        private final List<Hit> hits;
+        private final long version;
+        private final long serial = SERIAL.incrementAndGet();
+        // serial результата, из которого этот получен сужением, или 0
+        private final long refines;
+
+        private Match(String query, List<Hit> hits, long version, Match previous) {
+            this.query = query;
+            this.hits = hits;
+            this.version = version;
+            this.refines = previous == null ? 0 : previous.serial;
+        }
+
+        // Результат получен сужением other на том же состоянии индекса
+        public boolean isRefinementOf(Match other) {
+            return refines == other.serial;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        // Все исходные написания найденных направлений
+        public List<String> destinations() {
+            List<String> list = new ArrayList<>();
+            for (Hit hit : hits) {
+                list.addAll(hit.destinations());
+            }
+            return list;
+        }
+
+        public boolean isEmpty() {
+            return hits.isEmpty();
+        }
+    }
+
+    private final NavigableMap<String, Entry> byKey = new TreeMap<>();
+    private final Map<Long, Set<Entry>> trigrams = new HashMap<>();
+    private long version;
+
+    public synchronized void add(String destination) {
+        add(destination, 1);
+    }
+
+    public synchronized void add(String destination, int count) {
+        String key = normalize(destination);
+        Entry entry = byKey.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            byKey.put(key, entry);
+            for (long t : trigramsOf(key)) {
+                trigrams.computeIfAbsent(t, k -> new HashSet<>()).add(entry);
+            }
+        }
+        entry.spellings.merge(destination, count, Integer::sum);
+        version++;
+    }
+
+    public synchronized void remove(String destination) {
+        String key = normalize(destination);
+        Entry entry = byKey.get(key);
+        if (entry == null) {
+            return;
+        }
+        Integer left = entry.spellings.computeIfPresent(destination, (d, n) -> n > 1 ? n - 1 : null);
+        if (left == null && entry.spellings.isEmpty()) {
+            byKey.remove(key);
+            for (long t : trigramsOf(key)) {
+                Set<Entry> posting = trigrams.get(t);
+                if (posting != null) {
+                    posting.remove(entry);
+                    if (posting.isEmpty()) trigrams.remove(t);
+                }
+            }
+        }
+        version++;
+    }
+
+    // Пересоздаёт индекс по содержимому хранилища: тарифы считаются по номерам направлений
+    synchronized void rebuild(TariffStore store) {
+        byKey.clear();
+        trigrams.clear();
+        DestinationDictionary dictionary = store.dictionary();
+        int[] counts = new int[dictionary.size()];
+        TariffStore.Cursor c = store.cursor();
+        while (c.next()) {
+            counts[c.destinationCode()]++;
+        }
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                add(dictionary.decode(code), counts[code]);
+            }
+        }
+        version++;
+    }
+
+    public synchronized void clear() {
+        byKey.clear();
+        trigrams.clear();
+        version++;
+    }
+
+    // Все написания направления, совпадающего с destination после normalize; пустой список — нет такого
+    public synchronized List<String> spellings(String destination) {
+        Entry entry = byKey.get(normalize(destination));
+        return entry == null ? List.of() : List.copyOf(entry.spellings.keySet());
+    }
+
+    // Число различных (нормализованных) направлений
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public Match search(String query) {
+        return search(query, null);
+    }
+
+    // Если previous получен на неизменённом индексе и новый запрос его уточняет (печать продолжается),
+    // результат фильтруется из previous без обращения к индексу
+    public Match search(String query, Match previous) {
+        String q = normalize(query);
+        if (previous != null && narrows(previous.query, q)) {
+            synchronized (this) {
+                if (previous.version == version) {
+                    List<Hit> hits = new ArrayList<>();
+                    for (Hit hit : previous.hits) {
+                        if (matches(hit.key(), q)) hits.add(hit);
+                    }
+                    return new Match(q, hits, version, previous);
+                }
+            }
+        }
+        synchronized (this) {
+            return new Match(q, q.length() < TRIGRAM_MIN ? byPrefix(q) : bySubstring(q), version, null);
+        }
+    }
+
+    // Результаты запроса next входят в результаты prev
+    private static boolean narrows(String prev, String next) {
+        if (prev.length() < TRIGRAM_MIN) {
+            // поиск по началу сужается только продолжением начала; подстрока ищется заново
+            return next.length() < TRIGRAM_MIN && next.startsWith(prev);
+        }
+        return next.contains(prev);
+    }
+
+    private static boolean matches(String key, String q) {
+        return q.length() < TRIGRAM_MIN ? key.startsWith(q) : key.contains(q);
+    }
+
+    private List<Hit> byPrefix(String q) {
+        Collection<Entry> entries = q.isEmpty() ? byKey.values()
+                : byKey.subMap(q, true, q + Character.MAX_VALUE, false).values();
+        List<Hit> hits = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            hits.add(hit(e));
+        }
+        return hits;
+    }
+
+    private List<Hit> bySubstring(String q) {
+        Set<Entry> smallest = null;
+        for (long t : trigramsOf(q)) {
+            Set<Entry> posting = trigrams.get(t);
+            if (posting == null) {
+                return List.of();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        List<Hit> hits = new ArrayList<>();
+        for (Entry e : smallest) {
+            if (e.key.contains(q)) hits.add(hit(e));
+        }
+        hits.sort(Comparator.comparing(Hit::key));
+        return hits;
+    }
+
+    private static Hit hit(Entry e) {
+        return new Hit(e.key, List.copyOf(e.spellings.keySet()));
+    }
+
+    // Три соседних символа (UTF-16) упакованы в long
+    private static long[] trigramsOf(String key) {
+        int n = key.length() - TRIGRAM_MIN + 1;
+        if (n <= 0) {
+            return new long[0];
+        }
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = ((long) key.charAt(i) << 32) | ((long) key.charAt(i + 1) << 16) | key.charAt(i + 2);
+        }
+        return result;
+    }
+
+    // Форма для сравнения: NFKC, нижний регистр, ё → е, один вид апострофа и дефиса, одиночные пробелы
+    public static String normalize(String text) {
+        String s = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = sb.length() > 0;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            sb.append(switch (c) {
+                case 'ё' -> 'е';
+                case '’', '‘', 'ʼ', '`', '´' -> '\'';
+                case '‐', '‑', '‒', '–', '—' -> '-';
+                default -> c;
+            });
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,15 @@
+// src/airportapp/model/DestinationStats.java
+package airportapp.model;
+
+// Сводка по итоговым ценам тарифов одного направления (или всех, destination == null).
+// Перцентили приблизительные (погрешность ~3%), остальные значения точные.
+public record DestinationStats(String destination,
+                               long count,
+                               double sum,
+                               double min,
+                               double max,
+                               double mean,
+                               double median,
+                               double p90,
+                               double discountTotal) {
+}
@@ -3,4 +3,13 @@ package airportapp.model;
 
 public interface DiscountStrategy {
     double applyDiscount(double basePrice);
-}
\ No newline at end of file
+
+    // Пакетный расчёт: out[i] = applyDiscount(base[i]) для i из [from, to).
+    // out может быть тем же массивом, что и base. Реализации по умолчанию достаточно поштучного вызова,
+    // встроенные стратегии считают целыми векторами (PriceKernels).
+    default void applyDiscount(double[] base, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = applyDiscount(base[i]);
+        }
+    }
+}
@@ -5,13 +5,17 @@ public class FixedDiscount implements DiscountStrategy {
     private final double discountAmount;
 
     public FixedDiscount(double discountAmount) throws InvalidTariffException {
+        checkAmount(discountAmount);
+        this.discountAmount = discountAmount;
+    }
+
+    static void checkAmount(double discountAmount) throws InvalidTariffException {
         if (discountAmount < 0) {
             throw new InvalidTariffException("Скидка не может быть отрицательной");
         }
         if (discountAmount > 1e7) {
             throw new InvalidTariffException("Слишком большая скидка! Максимум — 10 млн.");
         }
-        this.discountAmount = discountAmount;
     }
 
     @Override
@@ -19,4 +23,13 @@ public class FixedDiscount implements DiscountStrategy {
         double discounted = basePrice - discountAmount;
         return Math.max(0.0, discounted);
     }
+
+    @Override
+    public void applyDiscount(double[] base, double[] out, int from, int to) {
+        PriceKernels.subtractClamped(base, out, from, to, discountAmount);
+    }
+
+    public double getAmount() {
+        return discountAmount;
+    }
 }
@@ -0,0 +1,107 @@
+// src/airportapp/model/LatencyHistogram.java
+package airportapp.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Гистограмма задержек в наносекундах с логарифмически-линейными корзинами (как в HdrHistogram):
+// каждая степень двойки делится на 32 корзины, так что относительная погрешность не больше ~3%.
+// Запись не выделяет памяти и не берёт замков — её можно вызывать на каждой операции.
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    // До 2^40 нс (~18 минут); большие значения попадают в последнюю корзину, максимум хранится точно
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    static int bucketOf(long value) {
+        if (value < 2 * SUB) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int index = (shift + 1) * SUB + (int) (value >>> shift) - SUB;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    // Середина диапазона значений корзины
+    static long valueOf(int bucket) {
+        if (bucket < 2 * SUB) {
+            return bucket;
+        }
+        int shift = bucket / SUB - 1;
+        long low = (long) (bucket % SUB + SUB) << shift;
+        return low + (1L << shift) / 2;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) totalNanos.get() / n;
+    }
+
+    // Значение, не меньше которого доля quantile (0..1) записей; 0, если записей нет
+    public long percentile(double quantile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(valueOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    // Непустые корзины как пары (значение, число записей) — для выгрузки в файл
+    public long[][] nonEmptyBuckets() {
+        int nonEmpty = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) nonEmpty++;
+        }
+        long[][] result = new long[nonEmpty][];
+        int k = 0;
+        for (int i = 0; i < BUCKETS && k < nonEmpty; i++) {
+            long c = counts.get(i);
+            if (c != 0) result[k++] = new long[]{valueOf(i), c};
+        }
+        return k == nonEmpty ? result : Arrays.copyOf(result, k);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+}
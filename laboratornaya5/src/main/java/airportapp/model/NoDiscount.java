@@ -2,10 +2,21 @@
 package airportapp.model;
 
 public class NoDiscount implements DiscountStrategy {
+    // Стратегия без состояния — один общий экземпляр на все тарифы без скидки
+    public static final NoDiscount INSTANCE = new NoDiscount();
+
     public NoDiscount() {}
 
     @Override
     public double applyDiscount(double basePrice) {
         return basePrice;
     }
+
+    // Копирование массива и так идёт со скоростью памяти — векторы здесь не нужны
+    @Override
+    public void applyDiscount(double[] base, double[] out, int from, int to) {
+        if (base != out) {
+            System.arraycopy(base, from, out, from, to - from);
+        }
+    }
 }
\ No newline at end of file
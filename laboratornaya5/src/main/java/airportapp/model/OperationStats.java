@@ -0,0 +1,42 @@
+// src/airportapp/model/OperationStats.java
+package airportapp.model;
+
+import java.beans.ConstructorProperties;
+
+// Снимок метрик одной операции Airport; времена — в микросекундах.
+// Класс с геттерами, чтобы JMX отображал его как CompositeData.
+public final class OperationStats {
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+    private final String lastError;
+
+    @ConstructorProperties({"name", "count", "errors", "rows", "meanMicros", "p50Micros", "p99Micros", "maxMicros", "lastError"})
+    public OperationStats(String name, long count, long errors, long rows, double meanMicros,
+                          double p50Micros, double p99Micros, double maxMicros, String lastError) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+        this.lastError = lastError;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public long getErrors() { return errors; }
+    public long getRows() { return rows; }
+    public double getMeanMicros() { return meanMicros; }
+    public double getP50Micros() { return p50Micros; }
+    public double getP99Micros() { return p99Micros; }
+    public double getMaxMicros() { return maxMicros; }
+    public String getLastError() { return lastError; }
+}
@@ -0,0 +1,517 @@
+// src/airportapp/model/PartitionedAirport.java
+package airportapp.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Тарифы, разделённые по направлениям между N файлами SQLite (секциями) в каталоге данных.
+// Каждая секция — обычный Airport со своим писателем, читателями и кэшем, поэтому импорт пишет
+// во все файлы параллельно, а чтения (максимум, выборки с сортировкой, статистика) идут по секциям
+// параллельно и сливаются: отсортированные списки — k-путевым слиянием, статистика — объединением
+// групп, так как направление целиком лежит в одной секции.
+//
+// Секция выбирается по хешу нормализованного направления (DestinationIndex.normalize): все написания
+// одного направления попадают в одну секцию. Число секций входит в имена файлов (airport-p0-of-4.db),
+// так что при другом N открывается новый набор файлов, а не старый с неверным разбиением.
+//
+// Глобальный id = локальный id * N + номер секции. Внутри секции порядок глобальных id совпадает
+// с локальным, поэтому выборка по id сливается так же, как по остальным ключам.
+//
+// Изменения в нескольких секциях (импорт, смена направления с переездом в другую секцию) атомарны
+// в каждой секции, но не между ними: ошибка в одной секции не откатывает остальные.
+public class PartitionedAirport implements TariffRepository {
+    public static final String PARTITIONS_PROPERTY = "airport.partitions";
+    private static final int EXPORT_PROGRESS_ROWS = 5000;
+
+    // Задача над одной секцией
+    @FunctionalInterface
+    private interface PartitionTask<T> {
+        T run(int partition, Airport airport);
+    }
+
+    private record Version(TariffStore store, TariffStatistics statistics) {}
+
+    private final List<Airport> partitions;
+    private final ExecutorService executor;
+    private final Map<TariffChangeListener, List<TariffChangeListener>> listeners = new ConcurrentHashMap<>();
+
+    // Каталог — Airport.dataDirectory(), число секций — -Dairport.partitions (по умолчанию по числу ядер, до 16)
+    public PartitionedAirport() {
+        this(Airport.dataDirectory(), Integer.getInteger(PARTITIONS_PROPERTY,
+                Math.min(16, Runtime.getRuntime().availableProcessors())));
+    }
+
+    // Секции открываются параллельно: каждая проверяет схему и читает свою таблицу в кэш
+    public PartitionedAirport(Path directory, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Нужна хотя бы одна секция");
+        }
+        executor = Executors.newFixedThreadPool(count, Thread.ofPlatform().name("partition-", 0).daemon().factory());
+        List<Callable<Airport>> opens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String url = "jdbc:sqlite:" + directory.resolve("airport-p" + i + "-of-" + count + ".db");
+            opens.add(() -> new Airport(DbConfig.forUrl(url)));
+        }
+        List<Future<Airport>> opening;
+        try {
+            opening = executor.invokeAll(opens);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Открытие секций прервано");
+        }
+        List<Airport> opened = new ArrayList<>(count);
+        RuntimeException failure = null;
+        for (Future<Airport> f : opening) {
+            if (f.state() == Future.State.SUCCESS) {
+                opened.add(f.resultNow());
+            } else if (failure == null) {
+                failure = unchecked(f.exceptionNow());
+            }
+        }
+        if (failure != null) {
+            opened.forEach(Airport::close);
+            executor.shutdown();
+            throw failure;
+        }
+        partitions = List.copyOf(opened);
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    // Метрики секции; у каждой секции своя запись в JMX
+    public AirportMetrics getMetrics(int partition) {
+        return partitions.get(partition).getMetrics();
+    }
+
+    // События приходят из потока секции с глобальными id
+    public void addChangeListener(TariffChangeListener listener) {
+        List<TariffChangeListener> wrappers = new ArrayList<>(partitions.size());
+        for (int p = 0; p < partitions.size(); p++) {
+            int partition = p;
+            TariffChangeListener wrapper = event -> listener.tariffsChanged(
+                    new TariffChangeEvent(event.getType(), global(partition, event.getTariffs())));
+            partitions.get(p).addChangeListener(wrapper);
+            wrappers.add(wrapper);
+        }
+        listeners.put(listener, wrappers);
+    }
+
+    public void removeChangeListener(TariffChangeListener listener) {
+        List<TariffChangeListener> wrappers = listeners.remove(listener);
+        if (wrappers == null) return;
+        for (int p = 0; p < partitions.size(); p++) {
+            partitions.get(p).removeChangeListener(wrappers.get(p));
+        }
+    }
+
+    // === Разбиение и id ===
+    int partitionOf(String destination) {
+        return Math.floorMod(DestinationIndex.normalize(destination).hashCode(), partitions.size());
+    }
+
+    private int partitionOfId(long id) {
+        return (int) Math.floorMod(id, (long) partitions.size());
+    }
+
+    private long localId(long id) {
+        return Math.floorDiv(id, (long) partitions.size());
+    }
+
+    private Tariff global(int partition, Tariff t) {
+        return t == null ? null : t.withId(t.getId() * partitions.size() + partition);
+    }
+
+    private List<Tariff> global(int partition, List<Tariff> tariffs) {
+        List<Tariff> list = new ArrayList<>(tariffs.size());
+        for (Tariff t : tariffs) {
+            list.add(global(partition, t));
+        }
+        return list;
+    }
+
+    // === Изменения ===
+    public Tariff addTariff(Tariff tariff) {
+        int p = partitionOf(tariff.getDestination());
+        return global(p, partitions.get(p).addTariff(tariff));
+    }
+
+    // null — строки с таким id нет. Если новое направление относится к другой секции, тариф переезжает
+    // и получает новый id. Сначала добавление, потом удаление: при сбое между ними тариф окажется
+    // в двух секциях, а не потеряется
+    public Tariff updateTariff(long id, Tariff updated) {
+        int from = partitionOfId(id);
+        int to = partitionOf(updated.getDestination());
+        Airport source = partitions.get(from);
+        if (from == to) {
+            return global(to, source.updateTariff(localId(id), updated));
+        }
+        if (source.getTariff(localId(id)) == null) {
+            return null;
+        }
+        Airport target = partitions.get(to);
+        Tariff saved = target.addTariff(updated);
+        if (!source.removeTariff(localId(id))) {
+            // строку успели удалить — переезжать нечему
+            target.removeTariff(saved.getId());
+            return null;
+        }
+        return global(to, saved);
+    }
+
+    public boolean removeTariff(long id) {
+        return partitions.get(partitionOfId(id)).removeTariff(localId(id));
+    }
+
+    // Сохранённый тариф удаляется по id; несохранённый — по значениям в секции его направления
+    public boolean removeTariff(Tariff tariff) {
+        if (tariff.getId() != Tariff.NO_ID) {
+            return removeTariff(tariff.getId());
+        }
+        return partitions.get(partitionOf(tariff.getDestination())).removeTariff(tariff);
+    }
+
+    // Каждая секция добавляет свою часть одной транзакцией, секции — параллельно.
+    // Результат в порядке исходного списка
+    public List<Tariff> addTariffs(List<Tariff> tariffs) {
+        int[] target = new int[tariffs.size()];
+        List<List<Tariff>> parts = new ArrayList<>(partitions.size());
+        for (int p = 0; p < partitions.size(); p++) {
+            parts.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tariffs.size(); i++) {
+            target[i] = partitionOf(tariffs.get(i).getDestination());
+            parts.get(target[i]).add(tariffs.get(i));
+        }
+        List<List<Tariff>> saved = scatter((p, airport) -> airport.addTariffs(parts.get(p)));
+        int[] next = new int[partitions.size()];
+        List<Tariff> result = new ArrayList<>(tariffs.size());
+        for (int p : target) {
+            result.add(global(p, saved.get(p).get(next[p]++)));
+        }
+        return result;
+    }
+
+    // Несуществующие id пропускаются; возвращает удалённые тарифы
+    public List<Tariff> removeTariffs(long[] ids) {
+        int[] sizes = new int[partitions.size()];
+        for (long id : ids) {
+            sizes[partitionOfId(id)]++;
+        }
+        long[][] local = new long[partitions.size()][];
+        for (int p = 0; p < local.length; p++) {
+            local[p] = new long[sizes[p]];
+        }
+        int[] next = new int[partitions.size()];
+        for (long id : ids) {
+            int p = partitionOfId(id);
+            local[p][next[p]++] = localId(id);
+        }
+        List<Tariff> removed = new ArrayList<>();
+        for (List<Tariff> part : scatter((p, airport) -> global(p, airport.removeTariffs(local[p])))) {
+            removed.addAll(part);
+        }
+        return removed;
+    }
+
+    // === Чтение ===
+    public Tariff getTariff(long id) {
+        int p = partitionOfId(id);
+        return global(p, partitions.get(p).getTariff(localId(id)));
+    }
+
+    public int countTariffs() {
+        int count = 0;
+        for (Airport partition : partitions) {
+            count += partition.countTariffs();
+        }
+        return count;
+    }
+
+    // Все тарифы по возрастанию глобального id
+    public List<Tariff> getTariffs() {
+        return merge(scatter((p, airport) -> global(p, airport.getTariffs())),
+                order(TariffSort.ID, true), 0, 0);
+    }
+
+    // Окно строк в порядке глобального id: с каждой секции берётся не больше offset + limit строк
+    public List<Tariff> getTariffs(int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        return merge(scatter((p, airport) -> global(p, airport.getTariffs(0, wanted))),
+                order(TariffSort.ID, true), offset, limit);
+    }
+
+    public Tariff findMaxPriceTariff() {
+        Tariff max = null;
+        Comparator<Tariff> order = order(TariffSort.FINAL_PRICE, false);
+        for (Tariff t : scatter((p, airport) -> global(p, airport.findMaxPriceTariff()))) {
+            if (t != null && (max == null || order.compare(t, max) < 0)) {
+                max = t;
+            }
+        }
+        return max;
+    }
+
+    // Направление живёт в одной секции — запрос идёт только в неё
+    public List<Tariff> findByDestination(String destination) {
+        int p = partitionOf(destination);
+        return global(p, partitions.get(p).findByDestination(destination));
+    }
+
+    // Каждая секция выполняет запрос по своим индексам с окном offset + limit, затем списки сливаются
+    // в порядке сортировки запроса. Keyset-граница after переводится в локальные id каждой секции
+    public List<Tariff> query(TariffQuery query) {
+        int wanted = query.getLimit() > 0
+                ? (int) Math.min((long) query.getOffset() + query.getLimit(), Integer.MAX_VALUE)
+                : 0;
+        Tariff after = query.getAfter();
+        List<List<Tariff>> parts = scatter((p, airport) -> {
+            TariffQuery local = query.offset(0).limit(wanted);
+            if (after != null) {
+                local = local.after(localAfter(after, p, query.isAscending()));
+            }
+            return global(p, airport.query(local));
+        });
+        return merge(parts, order(query.getSort(), query.isAscending()), query.getOffset(), query.getLimit());
+    }
+
+    // Граница «после after» для секции q. Строка секции q с локальным id l идёт после глобального
+    // id L * N + p, если l * N + q > L * N + p (по возрастанию): l > L при q < p и l >= L при q > p.
+    // По убыванию — наоборот
+    private Tariff localAfter(Tariff after, int q, boolean ascending) {
+        int p = partitionOfId(after.getId());
+        long bound = localId(after.getId());
+        if (ascending && q > p) {
+            bound--;
+        } else if (!ascending && q < p) {
+            bound++;
+        }
+        return after.withId(bound);
+    }
+
+    // Порядок строк, как в ORDER BY TariffQuery: ключ, затем id, в одном направлении
+    static Comparator<Tariff> order(TariffSort sort, boolean ascending) {
+        Comparator<Tariff> byKey = switch (sort) {
+            case ID -> Comparator.comparingLong(Tariff::getId);
+            case FINAL_PRICE -> Comparator.comparingDouble(t -> (Double) TariffSort.FINAL_PRICE.keyOf(t));
+            case BASE_PRICE -> Comparator.comparingDouble(Tariff::getBasePrice);
+            case DESTINATION -> Comparator.comparing(Tariff::getDestination, PartitionedAirport::compareNoCase);
+        };
+        Comparator<Tariff> order = byKey.thenComparingLong(Tariff::getId);
+        return ascending ? order : order.reversed();
+    }
+
+    // Как COLLATE NOCASE в SQLite: без учёта регистра только латиница
+    private static int compareNoCase(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+            if (x != y) {
+                x = (x >= 'A' && x <= 'Z') ? (char) (x + ('a' - 'A')) : x;
+                y = (y >= 'A' && y <= 'Z') ? (char) (y + ('a' - 'A')) : y;
+                if (x != y) return x - y;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    // k-путевое слияние отсортированных списков секций: в куче — номера секций по текущему элементу.
+    // limit = 0 — без ограничения
+    static List<Tariff> merge(List<List<Tariff>> parts, Comparator<Tariff> order, int offset, int limit) {
+        int[] position = new int[parts.size()];
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, parts.size()),
+                (x, y) -> order.compare(parts.get(x).get(position[x]), parts.get(y).get(position[y])));
+        long available = 0;
+        for (int p = 0; p < parts.size(); p++) {
+            if (!parts.get(p).isEmpty()) {
+                heap.add(p);
+                available += parts.get(p).size();
+            }
+        }
+        long capacity = Math.max(0, available - offset);
+        List<Tariff> result = new ArrayList<>((int) (limit > 0 ? Math.min(limit, capacity) : capacity));
+        int skipped = 0;
+        while (!heap.isEmpty() && (limit == 0 || result.size() < limit)) {
+            int p = heap.poll();
+            Tariff next = parts.get(p).get(position[p]++);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(next);
+            }
+            if (position[p] < parts.get(p).size()) {
+                heap.add(p);
+            }
+        }
+        return result;
+    }
+
+    // === Статистика ===
+    // Из статистик секций в памяти: группы объединяются, общий итог — слиянием накопителей
+    public TariffStatistics.Snapshot getStatistics() {
+        List<Version> versions = scatter((p, airport) -> airport.readStatistics(Version::new));
+        List<TariffStore> stores = new ArrayList<>(versions.size());
+        List<TariffStatistics> statistics = new ArrayList<>(versions.size());
+        for (Version v : versions) {
+            stores.add(v.store());
+            statistics.add(v.statistics());
+        }
+        return TariffStatistics.combine(stores, statistics);
+    }
+
+    // GROUP BY в каждой секции; порядок тот же, что у Airport.queryStatistics
+    public List<DestinationStats> queryStatistics() {
+        List<DestinationStats> list = new ArrayList<>();
+        for (List<DestinationStats> part : scatter((p, airport) -> airport.queryStatistics())) {
+            list.addAll(part);
+        }
+        list.sort(Comparator.comparingLong(DestinationStats::count).reversed()
+                .thenComparing(DestinationStats::destination));
+        return list;
+    }
+
+    // === Импорт и экспорт ===
+    // Файл разбирается один раз параллельно (TariffFileParser), строки раскладываются по секциям,
+    // и секции заменяют свои таблицы одновременно — каждая своим писателем. Только TXT без сжатия
+    public long importParallel(Path file, int batchSize, ProgressListener progress)
+            throws IOException, InvalidTariffException {
+        return replaceAll(TariffFileParser.parse(file), batchSize, progress);
+    }
+
+    // Заменяет содержимое всех секций; прогресс — суммарно в строках, из потоков секций
+    public long replaceAll(TariffBatch batch, int batchSize, ProgressListener progress) {
+        List<TariffBatch> parts = split(batch);
+        long[] done = new long[partitions.size()];
+        List<Long> inserted = scatter((p, airport) -> airport.replaceAll(parts.get(p), batchSize, (rows, total) -> {
+            synchronized (done) {
+                done[p] = rows;
+                long sum = 0;
+                for (long d : done) sum += d;
+                progress.onProgress(sum, batch.size());
+            }
+        }));
+        long total = 0;
+        for (long n : inserted) {
+            total += n;
+        }
+        return total;
+    }
+
+    // Раскладка строк по секциям; секция считается один раз на каждое различное направление
+    private List<TariffBatch> split(TariffBatch batch) {
+        int n = partitions.size();
+        int[] target = new int[batch.size()];
+        int[] sizes = new int[n];
+        Map<String, Integer> known = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            target[i] = known.computeIfAbsent(batch.destination(i), this::partitionOf);
+            sizes[target[i]]++;
+        }
+        String[][] destinations = new String[n][];
+        double[][] basePrices = new double[n][];
+        double[][] discounts = new double[n][];
+        for (int p = 0; p < n; p++) {
+            destinations[p] = new String[sizes[p]];
+            basePrices[p] = new double[sizes[p]];
+            discounts[p] = new double[sizes[p]];
+        }
+        int[] next = new int[n];
+        for (int i = 0; i < batch.size(); i++) {
+            int p = target[i];
+            int row = next[p]++;
+            destinations[p][row] = batch.destination(i);
+            basePrices[p][row] = batch.basePrice(i);
+            discounts[p][row] = batch.discount(i);
+        }
+        List<TariffBatch> parts = new ArrayList<>(n);
+        for (int p = 0; p < n; p++) {
+            parts.add(new TariffBatch(destinations[p], basePrices[p], discounts[p], sizes[p]));
+        }
+        return parts;
+    }
+
+    // Экспорт в TXT из кэшей секций (по секциям подряд, внутри — по id); формат тот же, что у Airport
+    // через временный файл (Airport.writeReplacing)
+    public long exportToFile(Path file, boolean gzip, ProgressListener progress) throws IOException {
+        long total = countTariffs();
+        long written = Airport.writeReplacing(file, gzip, writer -> {
+            StringBuilder line = new StringBuilder(128);
+            long rows = 0;
+            for (Airport partition : partitions) {
+                TariffStore.Cursor cursor = partition.readStore(TariffStore::cursor);
+                while (cursor.next()) {
+                    line.setLength(0);
+                    line.append(cursor.destination()).append('|');
+                    PriceFormat.appendFixed2(line, cursor.basePrice()).append('|');
+                    PriceFormat.appendFixed2(line, cursor.discount()).append('\n');
+                    writer.append(line);
+                    if (++rows % EXPORT_PROGRESS_ROWS == 0) {
+                        Airport.checkCancelled();
+                        progress.onProgress(rows, total);
+                    }
+                }
+            }
+            return rows;
+        });
+        progress.onProgress(written, written);
+        return written;
+    }
+
+    // === Параллельный обход секций ===
+    // Задача на каждую секцию в пуле; результаты в порядке секций. Прерывание вызывающего потока
+    // отменяет задачи секций — их незавершённые транзакции откатываются
+    private <T> List<T> scatter(PartitionTask<T> task) {
+        List<Callable<T>> tasks = new ArrayList<>(partitions.size());
+        for (int p = 0; p < partitions.size(); p++) {
+            int partition = p;
+            tasks.add(() -> task.run(partition, partitions.get(partition)));
+        }
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> f : executor.invokeAll(tasks)) {
+                results.add(f.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Операция отменена");
+        } catch (ExecutionException e) {
+            throw unchecked(e.getCause());
+        }
+    }
+
+    private static RuntimeException unchecked(Throwable error) {
+        if (error instanceof Error e) {
+            throw e;
+        }
+        if (error instanceof RuntimeException e) {
+            return e;
+        }
+        return new RuntimeException(error.getMessage(), error);
+    }
+
+    // Закрывает все секции; после этого объект использовать нельзя
+    @Override
+    public void close() {
+        executor.shutdown();
+        for (Airport partition : partitions) {
+            partition.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+// src/airportapp/model/PercentageDiscount.java
+package airportapp.model;
+
+// Скидка в процентах от базовой цены
+public class PercentageDiscount implements DiscountStrategy {
+    private final double percent;
+    private final double factor;
+
+    public PercentageDiscount(double percent) throws InvalidTariffException {
+        checkPercent(percent);
+        this.percent = percent;
+        this.factor = 1.0 - percent / 100.0;
+    }
+
+    static void checkPercent(double percent) throws InvalidTariffException {
+        if (Double.isNaN(percent) || percent < 0 || percent > 100) {
+            throw new InvalidTariffException("Процент скидки должен быть от 0 до 100");
+        }
+    }
+
+    @Override
+    public double applyDiscount(double basePrice) {
+        return basePrice * factor;
+    }
+
+    @Override
+    public void applyDiscount(double[] base, double[] out, int from, int to) {
+        PriceKernels.scale(base, out, from, to, factor);
+    }
+
+    public double getPercent() {
+        return percent;
+    }
+}
@@ -0,0 +1,61 @@
+// src/airportapp/model/PooledConnection.java
+package airportapp.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Долгоживущее соединение из ConnectionPool с кэшем подготовленных запросов.
+// close() не закрывает соединение, а возвращает его в пул.
+public final class PooledConnection implements AutoCloseable {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final Consumer<PooledConnection> releaser;
+
+    PooledConnection(Connection connection, Consumer<PooledConnection> releaser) {
+        this.connection = connection;
+        this.releaser = releaser;
+    }
+
+    // Запрос компилируется один раз на соединение; закрывать его не нужно
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+        return stmt;
+    }
+
+    public Statement createStatement() throws SQLException {
+        return connection.createStatement();
+    }
+
+    public Connection raw() {
+        return connection;
+    }
+
+    @Override
+    public void close() {
+        releaser.accept(this);
+    }
+
+    void closePhysically() {
+        for (PreparedStatement stmt : statements.values()) {
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {
+                // соединение всё равно закрывается
+            }
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,137 @@
+// src/airportapp/model/PriceAccumulator.java
+package airportapp.model;
+
+import java.util.Arrays;
+
+// Накопитель статистики итоговых цен одной группы с поддержкой удаления.
+// Суммы считаются в копейках (long), поэтому добавление и удаление не копят ошибку округления.
+// Распределение — разреженная гистограмма с корзинами LatencyHistogram по значениям в копейках.
+// Минимум и максимум точные; если удаляется крайнее значение, они помечаются устаревшими
+// и пересчитываются владельцем (TariffStatistics) по данным.
+final class PriceAccumulator {
+    long count;
+    long sumCents;
+    long discountCents;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    boolean extremesStale;
+
+    // отсортированные номера непустых корзин и число значений в каждой
+    private int[] buckets = new int[4];
+    private long[] counts = new long[4];
+    private int used;
+
+    PriceAccumulator copy() {
+        PriceAccumulator c = new PriceAccumulator();
+        c.count = count;
+        c.sumCents = sumCents;
+        c.discountCents = discountCents;
+        c.min = min;
+        c.max = max;
+        c.extremesStale = extremesStale;
+        c.buckets = buckets.clone();
+        c.counts = counts.clone();
+        c.used = used;
+        return c;
+    }
+
+    static long cents(double price) {
+        return Math.round(price * 100);
+    }
+
+    void add(double finalPrice, double discount) {
+        count++;
+        sumCents += cents(finalPrice);
+        discountCents += cents(discount);
+        if (finalPrice < min) min = finalPrice;
+        if (finalPrice > max) max = finalPrice;
+        bump(LatencyHistogram.bucketOf(cents(finalPrice)), 1);
+    }
+
+    void remove(double finalPrice, double discount) {
+        count--;
+        sumCents -= cents(finalPrice);
+        discountCents -= cents(discount);
+        bump(LatencyHistogram.bucketOf(cents(finalPrice)), -1);
+        if (count == 0) {
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            extremesStale = false;
+        } else if (finalPrice <= min || finalPrice >= max) {
+            extremesStale = true;
+        }
+    }
+
+    void merge(PriceAccumulator other) {
+        count += other.count;
+        sumCents += other.sumCents;
+        discountCents += other.discountCents;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        extremesStale |= other.extremesStale;
+        for (int i = 0; i < other.used; i++) {
+            bump(other.buckets[i], other.counts[i]);
+        }
+    }
+
+    // Вызывается владельцем после точного пересчёта крайних значений
+    void resetExtremes() {
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        extremesStale = false;
+    }
+
+    void observeExtreme(double finalPrice) {
+        if (finalPrice < min) min = finalPrice;
+        if (finalPrice > max) max = finalPrice;
+    }
+
+    private void bump(int bucket, long delta) {
+        int pos = Arrays.binarySearch(buckets, 0, used, bucket);
+        if (pos >= 0) {
+            counts[pos] += delta;
+            if (counts[pos] == 0) {
+                System.arraycopy(buckets, pos + 1, buckets, pos, used - pos - 1);
+                System.arraycopy(counts, pos + 1, counts, pos, used - pos - 1);
+                used--;
+            }
+            return;
+        }
+        pos = -pos - 1;
+        if (used == buckets.length) {
+            buckets = Arrays.copyOf(buckets, used * 2);
+            counts = Arrays.copyOf(counts, used * 2);
+        }
+        System.arraycopy(buckets, pos, buckets, pos + 1, used - pos);
+        System.arraycopy(counts, pos, counts, pos + 1, used - pos);
+        buckets[pos] = bucket;
+        counts[pos] = delta;
+        used++;
+    }
+
+    // Приблизительный перцентиль, ограниченный точными min и max
+    double percentile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < used; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double value = LatencyHistogram.valueOf(buckets[i]) / 100.0;
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    DestinationStats toStats(String destination) {
+        if (count == 0) {
+            return new DestinationStats(destination, 0, 0, Double.NaN, Double.NaN, Double.NaN,
+                    Double.NaN, Double.NaN, 0);
+        }
+        return new DestinationStats(destination, count, sumCents / 100.0, min, max,
+                sumCents / 100.0 / count, percentile(0.5), percentile(0.9), discountCents / 100.0);
+    }
+}
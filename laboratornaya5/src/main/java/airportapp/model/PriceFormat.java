@@ -0,0 +1,46 @@
+// src/airportapp/model/PriceFormat.java
+package airportapp.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Быстрое форматирование цен с двумя знаками после точки, без Formatter и без учёта локали
+public final class PriceFormat {
+    // Дальше произведение на 100 теряет точность в long/double — уходим в BigDecimal
+    private static final double FAST_LIMIT = 1e15;
+
+    private PriceFormat() {}
+
+    public static String format(double value) {
+        return format(value, '.');
+    }
+
+    public static String format(double value, char decimalSeparator) {
+        return appendFixed2(new StringBuilder(16), value, decimalSeparator).toString();
+    }
+
+    public static StringBuilder appendFixed2(StringBuilder sb, double value) {
+        return appendFixed2(sb, value, '.');
+    }
+
+    // Разделитель задаётся явно — например, запятая для отображения в русской локали
+    public static StringBuilder appendFixed2(StringBuilder sb, double value, char decimalSeparator) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return sb.append(value);
+        }
+        if (Math.abs(value) >= FAST_LIMIT) {
+            String plain = new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+            return sb.append(plain.replace('.', decimalSeparator));
+        }
+        long cents = Math.round(Math.abs(value) * 100);
+        if (value < 0 && cents != 0) {
+            sb.append('-');
+        }
+        sb.append(cents / 100).append(decimalSeparator);
+        long rest = cents % 100;
+        if (rest < 10) {
+            sb.append('0');
+        }
+        return sb.append(rest);
+    }
+}
@@ -0,0 +1,72 @@
+// src/airportapp/model/PriceKernels.java
+package airportapp.model;
+
+// Циклы пакетного расчёта цен. Если доступен модуль jdk.incubator.vector (--add-modules jdk.incubator.vector),
+// работа уходит в VectorPricing, иначе выполняются простые циклы ниже — их JIT тоже векторизует, но не все.
+// -Dairport.pricing.scalar=true принудительно отключает Vector API.
+final class PriceKernels {
+    static final boolean VECTOR = !Boolean.getBoolean("airport.pricing.scalar")
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private PriceKernels() {}
+
+    // out = max(0, base - amount)
+    static void subtractClamped(double[] base, double[] out, int from, int to, double amount) {
+        if (VECTOR) {
+            VectorPricing.subtractClamped(base, out, from, to, amount);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            out[i] = Math.max(0.0, base[i] - amount);
+        }
+    }
+
+    // out = base * factor
+    static void scale(double[] base, double[] out, int from, int to, double factor) {
+        if (VECTOR) {
+            VectorPricing.scale(base, out, from, to, factor);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            out[i] = base[i] * factor;
+        }
+    }
+
+    // out = base * factors[k], где k — последний порог с thresholds[k] <= base; ниже первого порога — base
+    static void tiered(double[] base, double[] out, int from, int to, double[] thresholds, double[] factors) {
+        if (VECTOR) {
+            VectorPricing.tiered(base, out, from, to, thresholds, factors);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            double b = base[i];
+            double factor = 1.0;
+            for (int k = 0; k < thresholds.length && b >= thresholds[k]; k++) {
+                factor = factors[k];
+            }
+            out[i] = b * factor;
+        }
+    }
+
+    // out = max(out, base - cap): скидка не больше cap
+    static void capDiscount(double[] base, double[] out, int from, int to, double cap) {
+        if (VECTOR) {
+            VectorPricing.capDiscount(base, out, from, to, cap);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            out[i] = Math.max(out[i], base[i] - cap);
+        }
+    }
+
+    // out = a - b
+    static void difference(double[] a, double[] b, double[] out, int from, int to) {
+        if (VECTOR) {
+            VectorPricing.difference(a, b, out, from, to);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+}
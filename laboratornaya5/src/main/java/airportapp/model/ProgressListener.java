@@ -0,0 +1,10 @@
+// src/airportapp/model/ProgressListener.java
+package airportapp.model;
+
+// Прогресс длительных операций (импорт, экспорт). total < 0, если объём заранее неизвестен
+@FunctionalInterface
+public interface ProgressListener {
+    ProgressListener NONE = (done, total) -> {};
+
+    void onProgress(long done, long total);
+}
@@ -0,0 +1,7 @@
+// src/airportapp/model/RepriceOperation.java
+package airportapp.model;
+
+// Запись журнала переоценок: id — номер для Airport.undoReprice (0 — ни одна строка не подошла,
+// в журнал ничего не записано), createdAt — время в миллисекундах эпохи.
+public record RepriceOperation(long id, String description, long createdAt, int rows, boolean undone) {
+}
@@ -0,0 +1,135 @@
+// src/airportapp/model/SchemaMigrator.java
+package airportapp.model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Версионные миграции схемы БД. Номер применённой версии хранится в заголовке файла БД
+// (PRAGMA user_version), поэтому при открытии уже обновлённой БД выполняется одно чтение,
+// а не десяток CREATE ... IF NOT EXISTS. Каждая новая миграция выполняется своей транзакцией
+// вместе с записью нового номера: прерванная миграция не оставляет половины схемы.
+//
+// Новые индексы и колонки — новая миграция в конце MIGRATIONS (CREATE INDEX,
+// ALTER TABLE ... ADD COLUMN), без пересоздания таблиц. Уже выпущенные миграции не меняются.
+// Миграции 1–3 повторяют схему, которую прежние версии создавали через IF NOT EXISTS; они
+// идемпотентны, так что БД без номера версии (user_version = 0) проходит их безопасно.
+final class SchemaMigrator {
+    record Migration(int version, String description, String... sql) {}
+
+    // Журнал изменений для дельта-экспорта: триггеры записывают id каждой добавленной, изменённой
+    // или удалённой строки с возрастающим seq. Airport снимает их на время импорта и ставит обратно
+    static final String[] CHANGE_LOG_TRIGGERS_SQL = {
+        """
+        CREATE TRIGGER IF NOT EXISTS tariffs_log_insert AFTER INSERT ON tariffs
+        BEGIN INSERT INTO tariff_changes(tariff_id) VALUES (NEW.id); END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS tariffs_log_update AFTER UPDATE ON tariffs
+        BEGIN INSERT INTO tariff_changes(tariff_id) VALUES (NEW.id); END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS tariffs_log_delete AFTER DELETE ON tariffs
+        BEGIN INSERT INTO tariff_changes(tariff_id) VALUES (OLD.id); END
+        """
+    };
+
+    static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Таблица тарифов и индексы под TariffQuery",
+            """
+            CREATE TABLE IF NOT EXISTS tariffs (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                destination TEXT NOT NULL,
+                base_price REAL NOT NULL,
+                discount REAL NOT NULL
+            )
+            """,
+            // выражение итоговой цены, базовая цена и направление без учёта регистра
+            "CREATE INDEX IF NOT EXISTS idx_tariffs_final_price ON tariffs(base_price - discount)",
+            "CREATE INDEX IF NOT EXISTS idx_tariffs_base_price ON tariffs(base_price)",
+            "CREATE INDEX IF NOT EXISTS idx_tariffs_destination ON tariffs(destination COLLATE NOCASE)"),
+        new Migration(2, "Журнал массовых переоценок",
+            """
+            CREATE TABLE IF NOT EXISTS reprice_operations (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                description TEXT NOT NULL,
+                created_at INTEGER NOT NULL,
+                row_count INTEGER NOT NULL DEFAULT 0,
+                undone INTEGER NOT NULL DEFAULT 0
+            )
+            """,
+            // старые и новые значения каждой затронутой строки
+            """
+            CREATE TABLE IF NOT EXISTS reprice_journal (
+                operation_id INTEGER NOT NULL,
+                tariff_id INTEGER NOT NULL,
+                old_base_price REAL NOT NULL,
+                old_discount REAL NOT NULL,
+                new_base_price REAL NOT NULL,
+                new_discount REAL NOT NULL,
+                PRIMARY KEY (operation_id, tariff_id)
+            ) WITHOUT ROWID
+            """),
+        new Migration(3, "Журнал изменений для дельта-экспорта",
+            // tariff_id NULL — таблица заменена целиком (импорт)
+            "CREATE TABLE IF NOT EXISTS tariff_changes (seq INTEGER PRIMARY KEY AUTOINCREMENT, tariff_id INTEGER)",
+            "CREATE TABLE IF NOT EXISTS sync_state (name TEXT PRIMARY KEY, value INTEGER NOT NULL)",
+            // журнал заводится на уже заполненной таблице: первая отметка означает «всё как при полной замене»
+            """
+            INSERT INTO tariff_changes(tariff_id) SELECT NULL
+            WHERE NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = 'tariff_changes')
+            """,
+            CHANGE_LOG_TRIGGERS_SQL[0],
+            CHANGE_LOG_TRIGGERS_SQL[1],
+            CHANGE_LOG_TRIGGERS_SQL[2]),
+        // Последняя полная замена (MAX(seq) WHERE tariff_id IS NULL) ищется при каждом дельта-экспорте;
+        // без индекса это обратный проход по всему журналу
+        new Migration(4, "Индекс журнала изменений по tariff_id",
+            "CREATE INDEX IF NOT EXISTS idx_tariff_changes_tariff ON tariff_changes(tariff_id)")
+    );
+
+    private SchemaMigrator() {}
+
+    static int latestVersion() {
+        return MIGRATIONS.getLast().version();
+    }
+
+    // Доводит схему до последней версии; возвращает число применённых миграций
+    static int migrate(ConnectionPool pool) throws SQLException {
+        int current;
+        try (PooledConnection conn = pool.acquireWriter()) {
+            current = userVersion(conn);
+        }
+        if (current > latestVersion()) {
+            throw new SQLException("Схема БД версии " + current + " новее, чем поддерживает программа ("
+                    + latestVersion() + ")");
+        }
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= current) {
+                continue;
+            }
+            try (ConnectionPool.Transaction tx = pool.beginTransaction();
+                 Statement stmt = tx.connection().createStatement()) {
+                for (String sql : migration.sql()) {
+                    stmt.execute(sql);
+                }
+                stmt.execute("PRAGMA user_version = " + migration.version());
+                tx.commit();
+            } catch (SQLException e) {
+                throw new SQLException("Миграция " + migration.version() + " («" + migration.description()
+                        + "») не выполнена: " + e.getMessage(), e);
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    private static int userVersion(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+// src/airportapp/model/StartupTimeline.java
+package airportapp.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Отметки этапов запуска в миллисекундах от старта процесса JVM: загрузка классов до main,
+// открытие и миграция БД, чтение кэша, первая отрисовка окна. С -Dairport.startup.report=true
+// отчёт печатается в stderr, а с -Dairport.startup.report=путь ещё и дописывается строкой CSV
+// в файл — так время запуска можно сравнивать между сборками (например, с архивом AppCDS
+// и без него, см. профиль appcds в pom.xml).
+public final class StartupTimeline {
+    public record Phase(String name, long millis) {}
+
+    public static final String MAIN = "Вход в main";
+    public static final String DB_OPENED = "БД открыта";
+    public static final String SCHEMA_READY = "Схема БД проверена";
+    public static final String CACHE_LOADED = "Кэш тарифов загружен";
+    public static final String WINDOW_CREATED = "Окно создано";
+    public static final String FIRST_PAINT = "Первая отрисовка окна";
+    public static final String DATA_SHOWN = "Тарифы показаны";
+    public static final String SERVER_STARTED = "Сервер принимает запросы";
+
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    // Старт процесса; если ОС его не сообщает — момент загрузки этого класса
+    private static final long ORIGIN_OFFSET_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(start -> Math.max(0, System.currentTimeMillis() - start.toEpochMilli()))
+            .orElse(0L);
+    private static final List<Phase> phases = new ArrayList<>();
+    private static boolean reported;
+
+    private StartupTimeline() {}
+
+    // Повторная отметка того же этапа не записывается: важен первый раз
+    public static synchronized void mark(String name) {
+        long millis = ORIGIN_OFFSET_MILLIS + (System.nanoTime() - ORIGIN_NANOS) / 1_000_000;
+        for (Phase phase : phases) {
+            if (phase.name().equals(name)) return;
+        }
+        phases.add(new Phase(name, millis));
+    }
+
+    public static synchronized List<Phase> phases() {
+        return List.copyOf(phases);
+    }
+
+    // Миллисекунды от старта процесса до этапа или -1, если он ещё не отмечен
+    public static synchronized long millisTo(String name) {
+        for (Phase phase : phases) {
+            if (phase.name().equals(name)) return phase.millis();
+        }
+        return -1;
+    }
+
+    public static synchronized String report() {
+        StringBuilder sb = new StringBuilder("Запуск, мс от старта JVM:\n");
+        long previous = 0;
+        for (Phase phase : phases) {
+            sb.append(String.format(Locale.ROOT, "  %6d  (+%5d)  %s%n",
+                    phase.millis(), phase.millis() - previous, phase.name()));
+            previous = phase.millis();
+        }
+        return sb.toString();
+    }
+
+    // Выводит отчёт один раз за запуск, если он включён свойством airport.startup.report
+    public static void finish() {
+        synchronized (StartupTimeline.class) {
+            if (reported) return;
+            reported = true;
+        }
+        String target = System.getProperty("airport.startup.report");
+        if (target == null || target.isBlank() || target.equals("false")) {
+            return;
+        }
+        System.err.print(report());
+        if (!target.equals("true")) {
+            try {
+                appendCsv(Path.of(target));
+            } catch (IOException e) {
+                System.err.println("Не удалось записать отчёт о запуске: " + e.getMessage());
+            }
+        }
+    }
+
+    // Строка: время, затем пары «этап;мс»; заголовка нет, так как набор этапов может меняться
+    private static void appendCsv(Path file) throws IOException {
+        StringBuilder line = new StringBuilder(Instant.now().toString());
+        for (Phase phase : phases()) {
+            line.append(';').append(phase.name()).append(';').append(phase.millis());
+        }
+        line.append(System.lineSeparator());
+        Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
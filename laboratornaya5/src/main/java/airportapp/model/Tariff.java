@@ -2,23 +2,57 @@
 package airportapp.model;
 
 public class Tariff {
+    // Тариф ещё не сохранён в БД
+    public static final long NO_ID = 0;
+
+    private final long id;
     private final String destination;
     private final double basePrice;
     private final DiscountStrategy discountStrategy;
 
     public Tariff(String destination, double basePrice, DiscountStrategy discountStrategy) throws InvalidTariffException {
+        this(NO_ID, destination, basePrice, discountStrategy);
+    }
+
+    public Tariff(long id, String destination, double basePrice, DiscountStrategy discountStrategy) throws InvalidTariffException {
+        this.id = id;
+        this.destination = checkDestination(destination);
+        checkBasePrice(basePrice);
+        this.basePrice = basePrice;
+        this.discountStrategy = (discountStrategy != null) ? discountStrategy : NoDiscount.INSTANCE;
+    }
+
+    private Tariff(long id, Tariff other) {
+        this.id = id;
+        this.destination = other.destination;
+        this.basePrice = other.basePrice;
+        this.discountStrategy = other.discountStrategy;
+    }
+
+    // Тот же тариф с ключом строки в БД
+    Tariff withId(long id) {
+        return new Tariff(id, this);
+    }
+
+    // Те же проверки, что и в конструкторе, — для массовой загрузки без создания объектов
+    static String checkDestination(String destination) throws InvalidTariffException {
         if (destination == null || destination.trim().isEmpty()) {
             throw new InvalidTariffException("Направление не может быть пустым");
         }
+        return destination.trim();
+    }
+
+    static void checkBasePrice(double basePrice) throws InvalidTariffException {
         if (basePrice < 0) {
             throw new InvalidTariffException("Цена не может быть отрицательной");
         }
         if (basePrice > 1e7) {
             throw new InvalidTariffException("Слишком высокая цена! Максимум — 10 млн.");
         }
-        this.destination = destination.trim();
-        this.basePrice = basePrice;
-        this.discountStrategy = (discountStrategy != null) ? discountStrategy : new NoDiscount();
+    }
+
+    public long getId() {
+        return id;
     }
 
     public String getDestination() {
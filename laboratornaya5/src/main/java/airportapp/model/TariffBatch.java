@@ -0,0 +1,52 @@
+// src/airportapp/model/TariffBatch.java
+package airportapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Набор разобранных строк в колонках: без объекта Tariff на каждую строку.
+// Скидка хранится так же, как в БД, — уже ограниченной базовой ценой.
+public final class TariffBatch {
+    private final String[] destinations;
+    private final double[] basePrices;
+    private final double[] discounts;
+    private final int size;
+
+    TariffBatch(String[] destinations, double[] basePrices, double[] discounts, int size) {
+        this.destinations = destinations;
+        this.basePrices = basePrices;
+        this.discounts = discounts;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String destination(int i) {
+        return destinations[i];
+    }
+
+    public double basePrice(int i) {
+        return basePrices[i];
+    }
+
+    public double discount(int i) {
+        return discounts[i];
+    }
+
+    public List<Tariff> toTariffs() throws InvalidTariffException {
+        return toTariffs(Tariff.NO_ID);
+    }
+
+    // firstId != NO_ID — строкам присваиваются id подряд, начиная с firstId
+    List<Tariff> toTariffs(long firstId) throws InvalidTariffException {
+        List<Tariff> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DiscountStrategy strategy = (discounts[i] > 0) ? new FixedDiscount(discounts[i]) : NoDiscount.INSTANCE;
+            long id = (firstId == Tariff.NO_ID) ? Tariff.NO_ID : firstId + i;
+            list.add(new Tariff(id, destinations[i], basePrices[i], strategy));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,46 @@
+// src/airportapp/model/TariffBatchInserter.java
+package airportapp.model;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// Пакетная вставка через один подготовленный INSERT. Транзакцией управляет вызывающий код.
+final class TariffBatchInserter {
+    private final PreparedStatement insert;
+    private final int batchSize;
+    private int pending;
+    private long inserted;
+
+    TariffBatchInserter(PreparedStatement insert, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Размер пакета должен быть положительным");
+        }
+        this.insert = insert;
+        this.batchSize = batchSize;
+    }
+
+    // true, если этим вызовом был отправлен очередной пакет
+    boolean add(String destination, double basePrice, double discount) throws SQLException {
+        insert.setString(1, destination);
+        insert.setDouble(2, basePrice);
+        insert.setDouble(3, discount);
+        insert.addBatch();
+        inserted++;
+        if (++pending == batchSize) {
+            flush();
+            return true;
+        }
+        return false;
+    }
+
+    void flush() throws SQLException {
+        if (pending > 0) {
+            insert.executeBatch();
+            pending = 0;
+        }
+    }
+
+    long inserted() {
+        return inserted;
+    }
+}
@@ -0,0 +1,25 @@
+// src/airportapp/model/TariffChangeEvent.java
+package airportapp.model;
+
+import java.util.List;
+
+// Изменение набора тарифов в Airport. Для RELOADED список пуст: после массовой замены содержимое читается из Airport заново.
+public final class TariffChangeEvent {
+    public enum Type { INSERTED, REMOVED, UPDATED, RELOADED }
+
+    private final Type type;
+    private final List<Tariff> tariffs;
+
+    public TariffChangeEvent(Type type, List<Tariff> tariffs) {
+        this.type = type;
+        this.tariffs = List.copyOf(tariffs);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Tariff> getTariffs() {
+        return tariffs;
+    }
+}
@@ -0,0 +1,9 @@
+// src/airportapp/model/TariffChangeListener.java
+package airportapp.model;
+
+// Вызывается в потоке, выполнившем изменение, в том же порядке, в каком изменения попали в БД.
+// Обработчик должен быть коротким: до его возврата следующая запись ждёт.
+@FunctionalInterface
+public interface TariffChangeListener {
+    void tariffsChanged(TariffChangeEvent event);
+}
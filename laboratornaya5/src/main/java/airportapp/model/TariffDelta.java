@@ -0,0 +1,27 @@
+// src/airportapp/model/TariffDelta.java
+package airportapp.model;
+
+import java.util.Locale;
+
+// Итог дельта-экспорта или применения дельты (*.tdelta, *.tdelta.gz): изменения журнала
+// с номерами из (fromWatermark, toWatermark]. full — дельта содержит всю таблицу
+// (после импорта или очистки журнала частичная уже невозможна).
+//
+// Формат файла — текст, как у TXT:
+//   #tariff-delta|1|<from>|<to>|<full: 0 или 1>
+//   U|<id>|направление|цена|скидка   — тариф добавлен или изменён
+//   D|<id>                           — тариф удалён
+public record TariffDelta(long fromWatermark, long toWatermark, boolean full, long upserts, long deletes) {
+    public static final String EXTENSION = ".tdelta";
+    static final String HEADER = "#tariff-delta";
+    static final int VERSION = 1;
+
+    public static boolean isDelta(String filename) {
+        String name = filename.toLowerCase(Locale.ROOT);
+        return name.endsWith(EXTENSION) || name.endsWith(EXTENSION + ".gz");
+    }
+
+    public long changes() {
+        return upserts + deletes;
+    }
+}
@@ -0,0 +1,246 @@
+// src/airportapp/model/TariffFileParser.java
+package airportapp.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// Параллельный разбор TXT-файла тарифов: файл отображается в память, делится на куски
+// по границам строк, и каждый кусок разбирается отдельной задачей fork/join прямо из байтов.
+public final class TariffFileParser {
+    private static final int MIN_CHUNK = 1 << 20;
+    // Одно отображение не может быть больше 2 ГБ
+    private static final long MAX_CHUNK = 1L << 30;
+    // Сколько ошибок на кусок запоминать: дальше файл всё равно отвергается целиком
+    private static final int MAX_ERRORS_PER_CHUNK = 100;
+
+    private TariffFileParser() {}
+
+    public static TariffBatch parse(Path file) throws IOException, InvalidTariffException {
+        return parse(file, ForkJoinPool.commonPool());
+    }
+
+    public static TariffBatch parse(Path file, ForkJoinPool pool) throws IOException, InvalidTariffException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel, pool.getParallelism());
+            List<ChunkTask> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                tasks.add(new ChunkTask(channel, bounds[i], bounds[i + 1]));
+            }
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                    return null;
+                }
+            });
+            return merge(tasks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Границы кусков: каждая, кроме последней, стоит сразу за '\n'
+    private static long[] splitAtLines(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunks = Math.max(1, Math.min(size / MIN_CHUNK, parallelism * 4L));
+        chunks = Math.max(chunks, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        long[] bounds = new long[(int) chunks + 1];
+        int count = 1;
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        for (long i = 1; i < chunks; i++) {
+            long pos = Math.max(size * i / chunks, bounds[count - 1]);
+            long lineStart = nextLineStart(channel, pos, probe);
+            if (lineStart > bounds[count - 1] && lineStart < size) {
+                bounds[count++] = lineStart;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long nextLineStart(FileChannel channel, long pos, ByteBuffer probe) throws IOException {
+        long size = channel.size();
+        while (pos < size) {
+            probe.clear();
+            int n = channel.read(probe, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private static TariffBatch merge(List<ChunkTask> tasks) throws TariffParseException {
+        int total = 0;
+        long lineOffset = 0;
+        List<TariffParseException.LineError> errors = new ArrayList<>();
+        for (ChunkTask task : tasks) {
+            total += task.size;
+            for (TariffParseException.LineError err : task.errors) {
+                errors.add(new TariffParseException.LineError(lineOffset + err.line(), err.message()));
+            }
+            lineOffset += task.lines;
+        }
+        if (!errors.isEmpty()) {
+            errors.sort(Comparator.comparingLong(TariffParseException.LineError::line));
+            throw new TariffParseException(errors);
+        }
+        String[] destinations = new String[total];
+        double[] basePrices = new double[total];
+        double[] discounts = new double[total];
+        int pos = 0;
+        for (ChunkTask task : tasks) {
+            System.arraycopy(task.destinations, 0, destinations, pos, task.size);
+            System.arraycopy(task.basePrices, 0, basePrices, pos, task.size);
+            System.arraycopy(task.discounts, 0, discounts, pos, task.size);
+            pos += task.size;
+        }
+        return new TariffBatch(destinations, basePrices, discounts, total);
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Void> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private String[] destinations = new String[1024];
+        private double[] basePrices = new double[1024];
+        private double[] discounts = new double[1024];
+        private int size;
+        private long lines;
+        private final List<TariffParseException.LineError> errors = new ArrayList<>();
+        private byte[] scratch = new byte[64];
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Void compute() {
+            MappedByteBuffer buf;
+            try {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int limit = buf.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+                lines++;
+                parseLine(buf, lineStart, lineEnd);
+                lineStart = lineEnd + 1;
+            }
+            return null;
+        }
+
+        private void parseLine(ByteBuffer buf, int from, int to) {
+            while (from < to && isSpace(buf.get(from))) from++;
+            while (to > from && isSpace(buf.get(to - 1))) to--;
+            if (from == to) {
+                return;
+            }
+            int first = indexOf(buf, from, to);
+            int second = first < 0 ? -1 : indexOf(buf, first + 1, to);
+            if (second < 0 || indexOf(buf, second + 1, to) >= 0) {
+                error("некорректный формат строки: " + decode(buf, from, to));
+                return;
+            }
+            try {
+                String destination = Tariff.checkDestination(decode(buf, from, first));
+                double basePrice = parseDecimal(buf, first + 1, second);
+                double discount = parseDecimal(buf, second + 1, to);
+                Tariff.checkBasePrice(basePrice);
+                FixedDiscount.checkAmount(discount);
+                append(destination, basePrice, Math.min(discount, basePrice));
+            } catch (InvalidTariffException e) {
+                error(e.getMessage());
+            }
+        }
+
+        private double parseDecimal(ByteBuffer buf, int from, int to) throws InvalidTariffException {
+            while (from < to && isSpace(buf.get(from))) from++;
+            while (to > from && isSpace(buf.get(to - 1))) to--;
+            long mantissa = 0;
+            int digits = 0;
+            int fraction = -1;
+            for (int i = from; i < to; i++) {
+                byte c = buf.get(i);
+                if (c >= '0' && c <= '9') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (fraction >= 0) fraction++;
+                } else if ((c == '.' || c == ',') && fraction < 0) {
+                    fraction = 0;
+                } else {
+                    digits = -1;
+                    break;
+                }
+            }
+            if (digits > 0 && digits <= 15) {
+                return fraction > 0 ? mantissa / TariffLineParser.pow10(fraction) : mantissa;
+            }
+            String text = decode(buf, from, to);
+            return TariffLineParser.parseDecimal(text, 0, text.length());
+        }
+
+        private String decode(ByteBuffer buf, int from, int to) {
+            int len = to - from;
+            if (scratch.length < len) {
+                scratch = new byte[Math.max(len, scratch.length * 2)];
+            }
+            buf.get(from, scratch, 0, len);
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        private void append(String destination, double basePrice, double discount) {
+            if (size == destinations.length) {
+                int capacity = size * 2;
+                destinations = Arrays.copyOf(destinations, capacity);
+                basePrices = Arrays.copyOf(basePrices, capacity);
+                discounts = Arrays.copyOf(discounts, capacity);
+            }
+            destinations[size] = destination;
+            basePrices[size] = basePrice;
+            discounts[size] = discount;
+            size++;
+        }
+
+        private void error(String message) {
+            if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+                errors.add(new TariffParseException.LineError(lines, message));
+            }
+        }
+
+        private static int indexOf(ByteBuffer buf, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (buf.get(i) == '|') return i;
+            }
+            return -1;
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+}
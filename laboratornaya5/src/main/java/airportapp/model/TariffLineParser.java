@@ -0,0 +1,101 @@
+// src/airportapp/model/TariffLineParser.java
+package airportapp.model;
+
+// Разбор строки формата "направление|цена|скидка" без split() и промежуточных строк.
+// Один экземпляр переиспользуется для всех строк файла; результат читается через геттеры.
+final class TariffLineParser {
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private String destination;
+    private double basePrice;
+    private double discount;
+
+    // false — пустая строка, которую нужно пропустить
+    boolean parse(String line, long lineNumber) throws InvalidTariffException {
+        try {
+            return parse(line);
+        } catch (InvalidTariffException e) {
+            throw new InvalidTariffException("Строка " + lineNumber + ": " + e.getMessage());
+        }
+    }
+
+    private boolean parse(String line) throws InvalidTariffException {
+        int start = 0;
+        int end = line.length();
+        while (start < end && Character.isWhitespace(line.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) end--;
+        if (start == end) {
+            return false;
+        }
+        int first = line.indexOf('|', start);
+        int second = first < 0 ? -1 : line.indexOf('|', first + 1);
+        if (first < 0 || second < 0 || second >= end || line.indexOf('|', second + 1) >= 0) {
+            throw new InvalidTariffException("некорректный формат строки: " + line.substring(start, end));
+        }
+        destination = Tariff.checkDestination(line.substring(start, first));
+        basePrice = parseDecimal(line, first + 1, second);
+        discount = parseDecimal(line, second + 1, end);
+        Tariff.checkBasePrice(basePrice);
+        FixedDiscount.checkAmount(discount);
+        return true;
+    }
+
+    String destination() {
+        return destination;
+    }
+
+    double basePrice() {
+        return basePrice;
+    }
+
+    // Скидка в том виде, в каком её хранит БД: не больше базовой цены (как FixedDiscount.applyDiscount)
+    double discount() {
+        return Math.min(discount, basePrice);
+    }
+
+    // Десятичная дробь с точкой или запятой (старые файлы писались через %.2f в русской локали)
+    static double parseDecimal(CharSequence s, int from, int to) throws InvalidTariffException {
+        while (from < to && Character.isWhitespace(s.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(s.charAt(to - 1))) to--;
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction >= 0) fraction++;
+            } else if ((c == '.' || c == ',') && fraction < 0) {
+                fraction = 0;
+            } else {
+                return parseSlow(s, from, to);
+            }
+        }
+        if (digits == 0) {
+            throw new InvalidTariffException("некорректное число: '" + s.subSequence(from, to) + "'");
+        }
+        if (digits > 15) {
+            return parseSlow(s, from, to);
+        }
+        // мантисса и степень десяти точно представимы в double, поэтому деление округляется корректно
+        return fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+    }
+
+    static double pow10(int exponent) {
+        return POW10[exponent];
+    }
+
+    // Знак, экспонента, NaN и прочие редкие случаи — через стандартный разбор
+    private static double parseSlow(CharSequence s, int from, int to) throws InvalidTariffException {
+        String text = s.subSequence(from, to).toString();
+        try {
+            return Double.parseDouble(text.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new InvalidTariffException("некорректное число: '" + text + "'");
+        }
+    }
+}
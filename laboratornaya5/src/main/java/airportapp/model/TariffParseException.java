@@ -0,0 +1,39 @@
+// src/airportapp/model/TariffParseException.java
+package airportapp.model;
+
+import java.util.List;
+
+// Ошибки разбора файла тарифов с номерами строк
+public class TariffParseException extends InvalidTariffException {
+    public record LineError(long line, String message) {
+        @Override
+        public String toString() {
+            return "Строка " + line + ": " + message;
+        }
+    }
+
+    private static final int SHOWN_IN_MESSAGE = 5;
+
+    private final List<LineError> errors;
+
+    public TariffParseException(List<LineError> errors) {
+        super(describe(errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    private static String describe(List<LineError> errors) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(errors.size(), SHOWN_IN_MESSAGE); i++) {
+            if (i > 0) sb.append('\n');
+            sb.append(errors.get(i));
+        }
+        if (errors.size() > SHOWN_IN_MESSAGE) {
+            sb.append("\n... и ещё ошибок: ").append(errors.size() - SHOWN_IN_MESSAGE);
+        }
+        return sb.toString();
+    }
+}
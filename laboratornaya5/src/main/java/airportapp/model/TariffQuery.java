@@ -0,0 +1,160 @@
+// src/airportapp/model/TariffQuery.java
+package airportapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Запрос к таблице тарифов: фильтры, сортировка и окно выборки. Неизменяемый;
+// каждый метод возвращает новый запрос. Выполняется через Airport.query.
+public final class TariffQuery {
+    private final TariffSort sort;
+    private final boolean ascending;
+    private final String destinationPrefix;
+    private final Double minFinalPrice;
+    private final Double maxFinalPrice;
+    private final int offset;
+    private final int limit;
+    private final Tariff after;
+
+    private TariffQuery(TariffSort sort, boolean ascending, String destinationPrefix,
+                        Double minFinalPrice, Double maxFinalPrice, int offset, int limit, Tariff after) {
+        this.sort = sort;
+        this.ascending = ascending;
+        this.destinationPrefix = destinationPrefix;
+        this.minFinalPrice = minFinalPrice;
+        this.maxFinalPrice = maxFinalPrice;
+        this.offset = offset;
+        this.limit = limit;
+        this.after = after;
+    }
+
+    public static TariffQuery all() {
+        return new TariffQuery(TariffSort.ID, true, null, null, null, 0, 0, null);
+    }
+
+    // k самых дорогих по итоговой цене
+    public static TariffQuery topByFinalPrice(int k) {
+        return all().sortedBy(TariffSort.FINAL_PRICE, false).limit(k);
+    }
+
+    // k самых дешёвых по итоговой цене
+    public static TariffQuery bottomByFinalPrice(int k) {
+        return all().sortedBy(TariffSort.FINAL_PRICE, true).limit(k);
+    }
+
+    public TariffQuery sortedBy(TariffSort sort, boolean ascending) {
+        return new TariffQuery(sort, ascending, destinationPrefix, minFinalPrice, maxFinalPrice, offset, limit, after);
+    }
+
+    // Направление начинается с prefix без учёта регистра (латиница)
+    public TariffQuery destinationStartsWith(String prefix) {
+        String p = (prefix == null || prefix.isBlank()) ? null : prefix.trim();
+        return new TariffQuery(sort, ascending, p, minFinalPrice, maxFinalPrice, offset, limit, after);
+    }
+
+    // Границы включительно; null — без ограничения
+    public TariffQuery finalPriceBetween(Double min, Double max) {
+        return new TariffQuery(sort, ascending, destinationPrefix, min, max, offset, limit, after);
+    }
+
+    public TariffQuery limit(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit < 0");
+        return new TariffQuery(sort, ascending, destinationPrefix, minFinalPrice, maxFinalPrice, offset, limit, after);
+    }
+
+    // Пропуск строк; для глубокой прокрутки быстрее after()
+    public TariffQuery offset(int offset) {
+        if (offset < 0) throw new IllegalArgumentException("offset < 0");
+        return new TariffQuery(sort, ascending, destinationPrefix, minFinalPrice, maxFinalPrice, offset, limit, after);
+    }
+
+    // Keyset-пагинация: строки строго после last в порядке сортировки (по ключу, затем по id)
+    public TariffQuery after(Tariff last) {
+        return new TariffQuery(sort, ascending, destinationPrefix, minFinalPrice, maxFinalPrice, offset, limit, last);
+    }
+
+    public TariffSort getSort() {
+        return sort;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getDestinationPrefix() {
+        return destinationPrefix;
+    }
+
+    public Double getMinFinalPrice() {
+        return minFinalPrice;
+    }
+
+    public Double getMaxFinalPrice() {
+        return maxFinalPrice;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Tariff getAfter() {
+        return after;
+    }
+
+    // SQL с параметрами в порядке params. Условия записаны так, чтобы SQLite мог
+    // пройти по индексу выражения сортировки диапазоном, а не сканировать таблицу.
+    String toSql(String columns, List<Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM tariffs");
+        List<String> where = new ArrayList<>();
+        if (destinationPrefix != null) {
+            where.add("destination LIKE ? ESCAPE '\\'");
+            params.add(escapeLike(destinationPrefix) + "%");
+        }
+        if (minFinalPrice != null) {
+            where.add("base_price - discount >= ?");
+            params.add(minFinalPrice);
+        }
+        if (maxFinalPrice != null) {
+            where.add("base_price - discount <= ?");
+            params.add(maxFinalPrice);
+        }
+        String expr = sort.sqlExpression();
+        if (after != null) {
+            Object key = sort.keyOf(after);
+            if (sort == TariffSort.ID) {
+                where.add(ascending ? "id > ?" : "id < ?");
+                params.add(key);
+            } else {
+                // первое условие даёт диапазон по индексу, второе отсекает уже показанные строки с тем же ключом
+                where.add(ascending
+                        ? expr + " >= ? AND (" + expr + ", id) > (?, ?)"
+                        : expr + " <= ? AND (" + expr + ", id) < (?, ?)");
+                params.add(key);
+                params.add(key);
+                params.add(after.getId());
+            }
+        }
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(expr).append(direction);
+        if (sort != TariffSort.ID) {
+            sql.append(", id").append(direction);
+        }
+        if (limit > 0 || offset > 0) {
+            sql.append(" LIMIT ? OFFSET ?");
+            params.add(limit > 0 ? limit : -1);
+            params.add(offset);
+        }
+        return sql.toString();
+    }
+
+    static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,25 @@
+// src/airportapp/model/TariffRepository.java
+package airportapp.model;
+
+import java.util.List;
+
+// Операции, которые нужны HTTP-интерфейсу (TariffServer): их дают и одна БД (Airport),
+// и набор секций (PartitionedAirport)
+public interface TariffRepository extends AutoCloseable {
+    void addChangeListener(TariffChangeListener listener);
+
+    void removeChangeListener(TariffChangeListener listener);
+
+    List<Tariff> addTariffs(List<Tariff> tariffs);
+
+    List<Tariff> removeTariffs(long[] ids);
+
+    int countTariffs();
+
+    List<Tariff> findByDestination(String destination);
+
+    List<Tariff> query(TariffQuery query);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,232 @@
+// src/airportapp/model/TariffSnapshot.java
+package airportapp.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+
+// Бинарный снапшот тарифов (*.tsnap) — быстрая альтернатива TXT для сохранения и загрузки.
+// Все числа little-endian, колонки выровнены по 8 байт, поэтому файл читается отображением
+// в память и копируется в массивы целиком, без разбора текста.
+//
+//   заголовок, 64 байта:
+//     0  "ARPTSNAP"        8  версия (int)       12 флаги (int, 0)
+//     16 число строк (long) 24 число направлений (int)
+//     32 размер словаря в байтах (long)          40 размер тела после заголовка (long)
+//     48 CRC32C тела (long) 56 CRC32C байтов 0..55 заголовка (long)
+//   тело:
+//     словарь направлений: для каждого — длина в байтах (int) и UTF-8, затем выравнивание до 8;
+//     номера направлений int[строк], выравнивание до 8; базовые цены double[строк]; скидки double[строк]
+//
+// id не сохраняются — как и в TXT, при загрузке строки получают новые id.
+public final class TariffSnapshot {
+    public static final String EXTENSION = ".tsnap";
+    static final int VERSION = 1;
+    private static final long MAGIC = 0x50414E5354505241L; // "ARPTSNAP" в little-endian
+    private static final int HEADER_SIZE = 64;
+    private static final int HEADER_CRC_OFFSET = 56;
+
+    private TariffSnapshot() {}
+
+    public static boolean isSnapshot(String filename) {
+        return filename.toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    // Кодирует хранилище в готовый к записи буфер — только копирование колонок неизменяемой
+    // версии; запись на диск (write) идёт отдельно.
+    // Направления, на которые не ссылается ни одна строка, в словарь снапшота не попадают.
+    static ByteBuffer encode(TariffStore store) {
+        int rows = store.size();
+        DestinationDictionary dictionary = store.dictionary();
+        int[] remap = new int[dictionary.size()];
+        for (int row = 0; row < rows; row++) {
+            remap[store.destinationCode(row)] = 1;
+        }
+        int used = 0;
+        long dictionaryBytes = 0;
+        byte[][] names = new byte[dictionary.size()][];
+        for (int code = 0; code < remap.length; code++) {
+            if (remap[code] != 0) {
+                names[used] = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+                dictionaryBytes += Integer.BYTES + names[used].length;
+                remap[code] = used++;
+            }
+        }
+        long codesOffset = align(dictionaryBytes);
+        long pricesOffset = align(codesOffset + (long) rows * Integer.BYTES);
+        long bodyBytes = pricesOffset + 2L * rows * Double.BYTES;
+        if (HEADER_SIZE + bodyBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Снапшот больше 2 ГБ не поддерживается");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (HEADER_SIZE + bodyBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer body = buffer.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < used; i++) {
+            body.putInt(names[i].length).put(names[i]);
+        }
+        body.position((int) codesOffset);
+        for (int row = 0; row < rows; row++) {
+            body.putInt(remap[store.destinationCode(row)]);
+        }
+        body.position((int) pricesOffset);
+        for (int row = 0; row < rows; row++) {
+            body.putDouble(store.basePrice(row));
+        }
+        for (int row = 0; row < rows; row++) {
+            body.putDouble(store.discount(row));
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.flip());
+        buffer.putLong(0, MAGIC)
+                .putInt(8, VERSION)
+                .putInt(12, 0)
+                .putLong(16, rows)
+                .putInt(24, used)
+                .putLong(32, dictionaryBytes)
+                .putLong(40, bodyBytes)
+                .putLong(48, crc.getValue())
+                .putLong(HEADER_CRC_OFFSET, headerCrc(buffer));
+        return buffer.clear();
+    }
+
+    // Запись через временный файл: прежний снапшот заменяется только целиком записанным
+    static void write(ByteBuffer snapshot, Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (snapshot.hasRemaining()) {
+                    channel.write(snapshot);
+                }
+                channel.force(false);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Файл отображается в память, проверяются заголовок и контрольные суммы, колонки копируются
+    // в массивы целиком. Значения проверяются на те же ограничения, что и при вводе тарифа.
+    // Любое несоответствие полей заголовка размерам файла — IOException, а не исключение буфера
+    public static TariffBatch read(Path file) throws IOException, InvalidTariffException {
+        try {
+            return readMapped(file);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Повреждённый снапшот: " + file.getFileName(), e);
+        }
+    }
+
+    private static TariffBatch readMapped(Path file) throws IOException, InvalidTariffException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Файл слишком мал для снапшота тарифов: " + file.getFileName());
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Снапшот больше 2 ГБ не поддерживается");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getLong(0) != MAGIC) {
+                throw new IOException("Файл не является снапшотом тарифов: " + file.getFileName());
+            }
+            int version = buffer.getInt(8);
+            if (version != VERSION) {
+                throw new IOException("Неподдерживаемая версия снапшота: " + version);
+            }
+            if (buffer.getLong(HEADER_CRC_OFFSET) != headerCrc(buffer)) {
+                throw new IOException("Контрольная сумма заголовка снапшота не совпадает: " + file.getFileName());
+            }
+            long rowsLong = buffer.getLong(16);
+            int destinationCount = buffer.getInt(24);
+            long dictionaryBytes = buffer.getLong(32);
+            long bodyBytes = buffer.getLong(40);
+            // на каждое направление словарь тратит хотя бы длину (int), так что число направлений
+            // ограничено размером словаря, а он — размером файла
+            if (rowsLong < 0 || rowsLong > size || dictionaryBytes < 0 || dictionaryBytes > size
+                    || destinationCount < 0 || destinationCount > dictionaryBytes / Integer.BYTES
+                    || bodyBytes != size - HEADER_SIZE) {
+                throw new IOException("Повреждённый заголовок снапшота: " + file.getFileName());
+            }
+            long codesOffset = align(dictionaryBytes);
+            long pricesOffset = align(codesOffset + rowsLong * Integer.BYTES);
+            if (pricesOffset + 2 * rowsLong * Double.BYTES != bodyBytes) {
+                throw new IOException("Повреждённый заголовок снапшота: " + file.getFileName());
+            }
+            ByteBuffer body = buffer.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if (crc.getValue() != buffer.getLong(48)) {
+                throw new IOException("Контрольная сумма снапшота не совпадает: " + file.getFileName());
+            }
+
+            int rows = (int) rowsLong;
+            String[] dictionary = readDictionary(body, destinationCount, dictionaryBytes);
+            int[] codes = new int[rows];
+            body.position((int) codesOffset).asIntBuffer().get(codes);
+            double[] basePrices = new double[rows];
+            double[] discounts = new double[rows];
+            body.position((int) pricesOffset).asDoubleBuffer().get(basePrices).get(discounts);
+
+            String[] destinations = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                int code = codes[i];
+                if (code < 0 || code >= destinationCount) {
+                    throw new IOException("Неверный номер направления в строке " + (i + 1));
+                }
+                destinations[i] = dictionary[code];
+                Tariff.checkBasePrice(basePrices[i]);
+                FixedDiscount.checkAmount(discounts[i]);
+                if (discounts[i] > basePrices[i]) {
+                    throw new InvalidTariffException("Скидка больше базовой цены в строке " + (i + 1));
+                }
+            }
+            return new TariffBatch(destinations, basePrices, discounts, rows);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer body, int count, long bytes)
+            throws IOException, InvalidTariffException {
+        String[] dictionary = new String[count];
+        body.position(0);
+        for (int i = 0; i < count; i++) {
+            if (body.position() + Integer.BYTES > bytes) {
+                throw new IOException("Повреждённый словарь направлений в снапшоте");
+            }
+            int length = body.getInt();
+            if (length < 0 || body.position() + (long) length > bytes) {
+                throw new IOException("Повреждённый словарь направлений в снапшоте");
+            }
+            byte[] name = new byte[length];
+            body.get(name);
+            dictionary[i] = Tariff.checkDestination(new String(name, StandardCharsets.UTF_8));
+        }
+        if (body.position() != bytes) {
+            throw new IOException("Повреждённый словарь направлений в снапшоте");
+        }
+        return dictionary;
+    }
+
+    // Защищает поля заголовка, которые не покрывает CRC тела: размеры, число строк и сам CRC тела
+    private static long headerCrc(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().clear().limit(HEADER_CRC_OFFSET));
+        return crc.getValue();
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
@@ -0,0 +1,32 @@
+// src/airportapp/model/TariffSort.java
+package airportapp.model;
+
+// Ключ сортировки для TariffQuery. Для каждого ключа в БД есть индекс, поэтому сортировка
+// выполняется обходом индекса, а не сортировкой в памяти.
+public enum TariffSort {
+    ID("id"),
+    FINAL_PRICE("base_price - discount"),
+    BASE_PRICE("base_price"),
+    DESTINATION("destination COLLATE NOCASE");
+
+    private final String sqlExpression;
+
+    TariffSort(String sqlExpression) {
+        this.sqlExpression = sqlExpression;
+    }
+
+    String sqlExpression() {
+        return sqlExpression;
+    }
+
+    // Значение ключа у тарифа — для постраничной выборки "после этой строки"
+    Object keyOf(Tariff t) {
+        return switch (this) {
+            case ID -> t.getId();
+            // то же выражение, что и в БД: base_price - discount, где discount = base - price
+            case FINAL_PRICE -> t.getBasePrice() - (t.getBasePrice() - t.getPrice());
+            case BASE_PRICE -> t.getBasePrice();
+            case DESTINATION -> t.getDestination();
+        };
+    }
+}
@@ -0,0 +1,252 @@
+// src/airportapp/model/TariffStatistics.java
+package airportapp.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Статистика итоговых цен по направлениям поверх TariffStore. Полный расчёт идёт параллельно
+// (fork/join по диапазонам строк), дальше Airport поддерживает её при каждом добавлении,
+// изменении и удалении, так что снимок для панели стоит O(число направлений), а не O(число тарифов).
+// Группы нумеруются кодами DestinationDictionary хранилища.
+//
+// Версии устроены как у TariffStore: опубликованная статистика не меняется, писатель обновляет
+// следующую версию из edit(). Группы лежат блоками по GROUP_CHUNK: версия копирует только
+// оглавление блоков, блок — при первом изменении любой его группы, а накопитель группы — при
+// первом изменении этой группы. Правка одного тарифа не стоит O(число направлений).
+public final class TariffStatistics {
+    // Лист fork/join не мельче этого; иначе — примерно 4 листа на поток, чтобы массивы групп листьев
+    // (по одному элементу на направление) не множились при сотнях тысяч направлений
+    private static final int MIN_LEAF_ROWS = 1 << 16;
+    private static final int GROUP_SHIFT = 10;
+    private static final int GROUP_CHUNK = 1 << GROUP_SHIFT;
+    private static final Comparator<DestinationStats> BY_COUNT =
+            Comparator.comparingLong(DestinationStats::count).reversed().thenComparing(DestinationStats::destination);
+
+    public record Snapshot(DestinationStats overall, List<DestinationStats> byDestination) {}
+
+    // Группа с кодом code — chunks[code >>> GROUP_SHIFT][code & (GROUP_CHUNK - 1)]; блок может быть null
+    private PriceAccumulator[][] chunks;
+    private final PriceAccumulator total;
+    // Для версии из edit(): owned[c] != null — блок c скопирован этой версией, а owned[c][i] — её
+    // накопитель группы i. owned == null — всё принадлежит версии (она не из edit())
+    private boolean[][] owned;
+
+    private TariffStatistics(PriceAccumulator[] byCode) {
+        this.chunks = new PriceAccumulator[Math.max(1, (byCode.length + GROUP_CHUNK - 1) >>> GROUP_SHIFT)][];
+        this.total = new PriceAccumulator();
+        for (int code = 0; code < byCode.length; code++) {
+            PriceAccumulator acc = byCode[code];
+            if (acc == null) continue;
+            int c = code >>> GROUP_SHIFT;
+            if (chunks[c] == null) chunks[c] = new PriceAccumulator[GROUP_CHUNK];
+            chunks[c][code & (GROUP_CHUNK - 1)] = acc;
+            total.merge(acc);
+        }
+    }
+
+    private TariffStatistics(TariffStatistics base) {
+        this.chunks = base.chunks.clone();
+        this.total = base.total.copy();
+        this.owned = new boolean[chunks.length][];
+    }
+
+    // Следующая версия для писателя
+    public TariffStatistics edit() {
+        return new TariffStatistics(this);
+    }
+
+    public static TariffStatistics compute(TariffStore store) {
+        return compute(store, ForkJoinPool.commonPool());
+    }
+
+    public static TariffStatistics compute(TariffStore store, ForkJoinPool pool) {
+        int groups = store.dictionary().size();
+        PriceAccumulator[] byCode = store.size() == 0
+                ? new PriceAccumulator[groups]
+                : pool.invoke(new GroupTask(store, groups, 0, store.size(),
+                        Math.max(MIN_LEAF_ROWS, store.size() / (pool.getParallelism() * 4))));
+        return new TariffStatistics(byCode);
+    }
+
+    void add(int code, double finalPrice, double discount) {
+        group(code).add(finalPrice, discount);
+        total.add(finalPrice, discount);
+    }
+
+    void remove(int code, double finalPrice, double discount) {
+        group(code).remove(finalPrice, discount);
+        total.remove(finalPrice, discount);
+    }
+
+    // Накопитель группы для изменения: блок и накопитель копируются при первом изменении в версии
+    private PriceAccumulator group(int code) {
+        int c = code >>> GROUP_SHIFT;
+        int i = code & (GROUP_CHUNK - 1);
+        if (c >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(c + 1, chunks.length * 2));
+        }
+        if (owned != null && c >= owned.length) {
+            owned = Arrays.copyOf(owned, chunks.length);
+        }
+        PriceAccumulator[] chunk = chunks[c];
+        if (owned != null && owned[c] == null) {
+            chunk = chunk == null ? new PriceAccumulator[GROUP_CHUNK] : chunk.clone();
+            chunks[c] = chunk;
+            owned[c] = new boolean[GROUP_CHUNK];
+        } else if (chunk == null) {
+            chunk = new PriceAccumulator[GROUP_CHUNK];
+            chunks[c] = chunk;
+        }
+        PriceAccumulator acc = chunk[i];
+        if (acc == null) {
+            acc = new PriceAccumulator();
+            chunk[i] = acc;
+        } else if (owned != null && !owned[c][i]) {
+            acc = acc.copy();
+            chunk[i] = acc;
+        }
+        if (owned != null) {
+            owned[c][i] = true;
+        }
+        return acc;
+    }
+
+    // Накопитель группы только для чтения или null
+    private PriceAccumulator peek(int code) {
+        int c = code >>> GROUP_SHIFT;
+        if (c >= chunks.length || chunks[c] == null) {
+            return null;
+        }
+        return chunks[c][code & (GROUP_CHUNK - 1)];
+    }
+
+    private int groupLimit() {
+        return chunks.length << GROUP_SHIFT;
+    }
+
+    // Есть группы, у которых удалялись крайние значения, — снимку нужен repairExtremes
+    boolean hasStaleExtremes() {
+        if (total.extremesStale) {
+            return true;
+        }
+        for (PriceAccumulator[] chunk : chunks) {
+            if (chunk == null) continue;
+            for (PriceAccumulator acc : chunk) {
+                if (acc != null && acc.extremesStale) return true;
+            }
+        }
+        return false;
+    }
+
+    // Точный min/max для групп, у которых удалялись крайние значения: один проход по их строкам.
+    // Меняет статистику, поэтому вызывается для версии из edit()
+    void repairExtremes(TariffStore store) {
+        boolean[] stale = new boolean[groupLimit()];
+        boolean any = total.extremesStale;
+        for (int code = 0; code < stale.length; code++) {
+            PriceAccumulator acc = peek(code);
+            if (acc != null && acc.extremesStale) {
+                stale[code] = true;
+                group(code).resetExtremes();
+                any = true;
+            }
+        }
+        if (!any) {
+            return;
+        }
+        boolean totalStale = total.extremesStale;
+        if (totalStale) total.resetExtremes();
+        TariffStore.Cursor c = store.cursor();
+        while (c.next()) {
+            int code = c.destinationCode();
+            double price = c.finalPrice();
+            if (code < stale.length && stale[code]) peek(code).observeExtreme(price);
+            if (totalStale) total.observeExtreme(price);
+        }
+    }
+
+    // Непустые направления по убыванию числа тарифов
+    Snapshot snapshot(DestinationDictionary dictionary) {
+        List<DestinationStats> list = new ArrayList<>();
+        addGroups(dictionary, list);
+        list.sort(BY_COUNT);
+        return new Snapshot(total.toStats(null), list);
+    }
+
+    // Сводка по нескольким хранилищам, у которых нет общих направлений (секции PartitionedAirport):
+    // группы просто объединяются, а общий итог — слияние итогов, так что перцентили не усредняются
+    static Snapshot combine(List<TariffStore> stores, List<TariffStatistics> parts) {
+        List<DestinationStats> list = new ArrayList<>();
+        PriceAccumulator overall = new PriceAccumulator();
+        for (int i = 0; i < parts.size(); i++) {
+            parts.get(i).addGroups(stores.get(i).dictionary(), list);
+            overall.merge(parts.get(i).total);
+        }
+        list.sort(BY_COUNT);
+        return new Snapshot(overall.toStats(null), list);
+    }
+
+    private void addGroups(DestinationDictionary dictionary, List<DestinationStats> into) {
+        for (int c = 0; c < chunks.length; c++) {
+            PriceAccumulator[] chunk = chunks[c];
+            if (chunk == null) continue;
+            for (int i = 0; i < GROUP_CHUNK; i++) {
+                PriceAccumulator acc = chunk[i];
+                if (acc != null && acc.count > 0) {
+                    into.add(acc.toStats(dictionary.decode((c << GROUP_SHIFT) + i)));
+                }
+            }
+        }
+    }
+
+    private static final class GroupTask extends RecursiveTask<PriceAccumulator[]> {
+        private final TariffStore store;
+        private final int groups;
+        private final int from;
+        private final int to;
+        private final int leafRows;
+
+        GroupTask(TariffStore store, int groups, int from, int to, int leafRows) {
+            this.store = store;
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected PriceAccumulator[] compute() {
+            if (to - from <= leafRows) {
+                PriceAccumulator[] result = new PriceAccumulator[groups];
+                for (int row = from; row < to; row++) {
+                    int code = store.destinationCode(row);
+                    PriceAccumulator acc = result[code];
+                    if (acc == null) {
+                        acc = new PriceAccumulator();
+                        result[code] = acc;
+                    }
+                    acc.add(store.finalPrice(row), store.discount(row));
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            GroupTask right = new GroupTask(store, groups, mid, to, leafRows);
+            right.fork();
+            PriceAccumulator[] left = new GroupTask(store, groups, from, mid, leafRows).compute();
+            PriceAccumulator[] other = right.join();
+            for (int code = 0; code < groups; code++) {
+                if (other[code] == null) continue;
+                if (left[code] == null) {
+                    left[code] = other[code];
+                } else {
+                    left[code].merge(other[code]);
+                }
+            }
+            return left;
+        }
+    }
+}
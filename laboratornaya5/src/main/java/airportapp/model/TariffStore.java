@@ -0,0 +1,569 @@
+// src/airportapp/model/TariffStore.java
+package airportapp.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Колоночное хранилище тарифов в памяти: id, цены и скидки — в массивах примитивов,
+// направление — номер в DestinationDictionary. Около 28 байт на строку вместо объектов
+// Tariff + String + DiscountStrategy, поэтому 10 млн тарифов занимают ~300 МБ, а проходы
+// по колонкам (поиск, сортировка, агрегаты) идут по непрерывной памяти без упаковки.
+// Строки упорядочены по id.
+//
+// Колонки разбиты на страницы по PAGE_SIZE строк. Версии: опубликованное хранилище не меняется,
+// и его читают из любых потоков без замков. Писатель меняет следующую версию из edit(): она делит
+// с прежней страницы и копирует только оглавление (O(число страниц)). Перед изменением строки
+// копируется одна её страница (копирование при записи), так что правка одной строки стоит
+// O(PAGE_SIZE), а не O(size). Дописывание в конец прежней версии не видно: она читает только свои
+// строки страницы. Соседние страницы вместе всегда больше PAGE_SIZE строк (иначе сливаются),
+// поэтому номер страницы по номеру строки находится за пару шагов.
+// Сама версия из edit() потокобезопасной не является: её меняет один писатель до публикации.
+public final class TariffStore {
+    static final int PAGE_SHIFT = 12;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    // Каждая версия — свой владелец страниц: страницу, созданную или скопированную версией, она меняет на месте
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static final class Page {
+        final long owner;
+        final long[] ids = new long[PAGE_SIZE];
+        final int[] destinations = new int[PAGE_SIZE];
+        final double[] basePrices = new double[PAGE_SIZE];
+        final double[] discounts = new double[PAGE_SIZE];
+
+        Page(long owner) {
+            this.owner = owner;
+        }
+
+        Page copy(long owner, int count) {
+            Page c = new Page(owner);
+            System.arraycopy(ids, 0, c.ids, 0, count);
+            System.arraycopy(destinations, 0, c.destinations, 0, count);
+            System.arraycopy(basePrices, 0, c.basePrices, 0, count);
+            System.arraycopy(discounts, 0, c.discounts, 0, count);
+            return c;
+        }
+
+        void move(int from, Page to, int at, int length) {
+            System.arraycopy(ids, from, to.ids, at, length);
+            System.arraycopy(destinations, from, to.destinations, at, length);
+            System.arraycopy(basePrices, from, to.basePrices, at, length);
+            System.arraycopy(discounts, from, to.discounts, at, length);
+        }
+    }
+
+    private final DestinationDictionary dictionary;
+    private final long version = VERSIONS.incrementAndGet();
+    private Page[] pages;
+    // Строк этой версии на каждой странице; starts — номер первой строки страницы (starts[pageCount] == size)
+    private int[] counts;
+    private int[] starts;
+    // Страница, на которой лежит строка номер k * PAGE_SIZE
+    private int[] blockPage;
+    private int pageCount;
+    private int size;
+
+    public TariffStore() {
+        this(PAGE_SIZE);
+    }
+
+    public TariffStore(int capacity) {
+        dictionary = new DestinationDictionary();
+        int pagesNeeded = Math.max(1, (Math.max(capacity, 0) + PAGE_SIZE - 1) >>> PAGE_SHIFT);
+        pages = new Page[pagesNeeded];
+        counts = new int[pagesNeeded];
+        starts = new int[pagesNeeded + 1];
+        blockPage = new int[pagesNeeded];
+    }
+
+    private TariffStore(TariffStore base) {
+        dictionary = base.dictionary;
+        pages = base.pages.clone();
+        counts = base.counts.clone();
+        starts = base.starts.clone();
+        blockPage = base.blockPage.clone();
+        pageCount = base.pageCount;
+        size = base.size;
+    }
+
+    // Следующая версия для писателя — копируется оглавление страниц, не колонки
+    public TariffStore edit() {
+        return new TariffStore(this);
+    }
+
+    // === Колонки ===
+    public int size() {
+        return size;
+    }
+
+    // Страница строки: от страницы начала её блока не дальше двух шагов
+    private int pageOf(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(row);
+        }
+        int p = blockPage[row >>> PAGE_SHIFT];
+        while (row >= starts[p + 1]) p++;
+        return p;
+    }
+
+    public long id(int row) {
+        int p = pageOf(row);
+        return pages[p].ids[row - starts[p]];
+    }
+
+    public String destination(int row) {
+        return dictionary.decode(destinationCode(row));
+    }
+
+    // Номер направления в dictionary() — для группировки без сравнения строк
+    public int destinationCode(int row) {
+        int p = pageOf(row);
+        return pages[p].destinations[row - starts[p]];
+    }
+
+    public double basePrice(int row) {
+        int p = pageOf(row);
+        return pages[p].basePrices[row - starts[p]];
+    }
+
+    public double discount(int row) {
+        int p = pageOf(row);
+        return pages[p].discounts[row - starts[p]];
+    }
+
+    // Скидка не больше базовой цены, поэтому итоговая цена — просто разность
+    public double finalPrice(int row) {
+        int p = pageOf(row);
+        Page page = pages[p];
+        int at = row - starts[p];
+        return page.basePrices[at] - page.discounts[at];
+    }
+
+    public DestinationDictionary dictionary() {
+        return dictionary;
+    }
+
+    // === Изменение ===
+    // id должен быть больше всех имеющихся (так их выдаёт AUTOINCREMENT)
+    public void append(long id, String destination, double basePrice, double discount) {
+        if (size > 0 && id <= lastId()) {
+            throw new IllegalArgumentException("id " + id + " не больше последнего " + lastId());
+        }
+        int code = dictionary.encode(destination);
+        if (pageCount == 0 || counts[pageCount - 1] == PAGE_SIZE) {
+            addPage();
+        }
+        // Слот за последней строкой страницы не виден ни одной опубликованной версии,
+        // поэтому пишется и в общую страницу
+        int p = pageCount - 1;
+        Page page = pages[p];
+        int at = counts[p];
+        page.ids[at] = id;
+        page.destinations[at] = code;
+        page.basePrices[at] = basePrice;
+        page.discounts[at] = discount;
+        if ((size & (PAGE_SIZE - 1)) == 0) {
+            int block = size >>> PAGE_SHIFT;
+            if (block == blockPage.length) {
+                blockPage = Arrays.copyOf(blockPage, block * 2);
+            }
+            blockPage[block] = p;
+        }
+        counts[p]++;
+        size++;
+        starts[pageCount] = size;
+    }
+
+    public void append(Tariff tariff) {
+        append(tariff.getId(), tariff.getDestination(), tariff.getBasePrice(), discountOf(tariff));
+    }
+
+    // Строки пакета получают id подряд, начиная с firstId
+    public void appendAll(TariffBatch batch, long firstId) {
+        for (int i = 0; i < batch.size(); i++) {
+            append(firstId + i, batch.destination(i), batch.basePrice(i), batch.discount(i));
+        }
+    }
+
+    public void set(int row, Tariff tariff) {
+        int p = pageOf(row);
+        Page page = own(p);
+        int at = row - starts[p];
+        page.destinations[at] = dictionary.encode(tariff.getDestination());
+        page.basePrices[at] = tariff.getBasePrice();
+        page.discounts[at] = discountOf(tariff);
+    }
+
+    // Новые цены строки при том же направлении — для массовой переоценки
+    public void setPrices(int row, double basePrice, double discount) {
+        int p = pageOf(row);
+        Page page = own(p);
+        int at = row - starts[p];
+        page.basePrices[at] = basePrice;
+        page.discounts[at] = discount;
+    }
+
+    public void remove(int row) {
+        int p = pageOf(row);
+        Page page = own(p);
+        int at = row - starts[p];
+        page.move(at + 1, page, at, counts[p] - at - 1);
+        counts[p]--;
+        compact();
+    }
+
+    // Удаляет все строки с такими значениями за один проход; возвращает удалённые тарифы.
+    // Копируются только страницы, где есть такие строки
+    public List<Tariff> removeMatching(String destination, double basePrice, double discount) {
+        List<Tariff> removed = new ArrayList<>();
+        int code = dictionary.find(destination);
+        if (code < 0) {
+            return removed;
+        }
+        for (int p = 0; p < pageCount; p++) {
+            Page page = pages[p];
+            int n = counts[p];
+            int first = 0;
+            while (first < n && !(page.destinations[first] == code
+                    && page.basePrices[first] == basePrice && page.discounts[first] == discount)) {
+                first++;
+            }
+            if (first == n) {
+                continue;
+            }
+            page = own(p);
+            int kept = first;
+            for (int i = first; i < n; i++) {
+                if (page.destinations[i] == code && page.basePrices[i] == basePrice && page.discounts[i] == discount) {
+                    removed.add(tariffAt(page, i));
+                    continue;
+                }
+                page.move(i, page, kept++, 1);
+            }
+            counts[p] = kept;
+        }
+        if (!removed.isEmpty()) {
+            compact();
+        }
+        return removed;
+    }
+
+    // Удаляет строки с данными id; возвращает удалённые тарифы в порядке id.
+    // Копируются только страницы с удаляемыми строками
+    public List<Tariff> removeIds(long[] idsToRemove) {
+        long[] sorted = idsToRemove.clone();
+        Arrays.sort(sorted);
+        List<Tariff> removed = new ArrayList<>();
+        int next = 0;
+        while (next < sorted.length) {
+            int row = indexOf(sorted[next]);
+            if (row < 0) {
+                next++;
+                continue;
+            }
+            int p = pageOf(row);
+            Page page = own(p);
+            int n = counts[p];
+            int kept = row - starts[p];
+            for (int i = kept; i < n; i++) {
+                while (next < sorted.length && sorted[next] < page.ids[i]) next++;
+                if (next < sorted.length && sorted[next] == page.ids[i]) {
+                    removed.add(tariffAt(page, i));
+                    continue;
+                }
+                page.move(i, page, kept++, 1);
+            }
+            counts[p] = kept;
+        }
+        if (!removed.isEmpty()) {
+            compact();
+        }
+        return removed;
+    }
+
+    // Новые страницы вместо общих: дописывание после clear() не должно затереть строки прежней версии
+    public void clear() {
+        pages = new Page[1];
+        counts = new int[1];
+        starts = new int[2];
+        blockPage = new int[1];
+        pageCount = 0;
+        size = 0;
+    }
+
+    private void addPage() {
+        if (pageCount == pages.length) {
+            int capacity = pageCount * 2;
+            pages = Arrays.copyOf(pages, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            starts = Arrays.copyOf(starts, capacity + 1);
+        }
+        pages[pageCount] = new Page(version);
+        counts[pageCount] = 0;
+        pageCount++;
+        starts[pageCount] = size;
+    }
+
+    // Копирование при записи: своя копия страницы перед изменением её строк
+    private Page own(int p) {
+        Page page = pages[p];
+        if (page.owner != version) {
+            page = page.copy(version, counts[p]);
+            pages[p] = page;
+        }
+        return page;
+    }
+
+    // После удалений: пустые страницы выбрасываются, соседние, которые вместе помещаются в одну,
+    // сливаются; затем пересчитывается оглавление. O(число страниц) плюс копирование слитых страниц
+    private void compact() {
+        int out = 0;
+        for (int p = 0; p < pageCount; p++) {
+            if (counts[p] == 0) {
+                continue;
+            }
+            if (out > 0 && counts[out - 1] + counts[p] <= PAGE_SIZE) {
+                Page left = own(out - 1);
+                pages[p].move(0, left, counts[out - 1], counts[p]);
+                counts[out - 1] += counts[p];
+                continue;
+            }
+            pages[out] = pages[p];
+            counts[out] = counts[p];
+            out++;
+        }
+        Arrays.fill(pages, out, pageCount, null);
+        pageCount = out;
+        size = 0;
+        for (int p = 0; p < pageCount; p++) {
+            starts[p] = size;
+            size += counts[p];
+        }
+        starts[pageCount] = size;
+        int blocks = (size + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+        if (blocks > blockPage.length) {
+            blockPage = new int[blocks];
+        }
+        int p = 0;
+        for (int block = 0; block < blocks; block++) {
+            int row = block << PAGE_SHIFT;
+            while (row >= starts[p + 1]) p++;
+            blockPage[block] = p;
+        }
+    }
+
+    private long lastId() {
+        int p = pageCount - 1;
+        return pages[p].ids[counts[p] - 1];
+    }
+
+    private static double discountOf(Tariff tariff) {
+        return tariff.getBasePrice() - tariff.getPrice();
+    }
+
+    // === Поиск и проходы ===
+    // Номер строки по id (двоичный поиск по первым id страниц, затем внутри страницы) или -1
+    public int indexOf(long id) {
+        int lo = 0;
+        int hi = pageCount - 1;
+        if (hi < 0 || id < pages[0].ids[0]) {
+            return -1;
+        }
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (pages[mid].ids[0] <= id) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int at = Arrays.binarySearch(pages[lo].ids, 0, counts[lo], id);
+        return at >= 0 ? starts[lo] + at : -1;
+    }
+
+    // Строка с наибольшей итоговой ценой (первая из равных) или -1 для пустого хранилища
+    public int indexOfMaxFinalPrice() {
+        int best = -1;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int p = 0; p < pageCount; p++) {
+            Page page = pages[p];
+            for (int i = 0; i < counts[p]; i++) {
+                double price = page.basePrices[i] - page.discounts[i];
+                if (price > max) {
+                    max = price;
+                    best = starts[p] + i;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Номера строк в порядке итоговой цены; при равных ценах — по id
+    public int[] orderByFinalPrice(boolean ascending) {
+        // keys переставляется при сортировке, поэтому это отдельный массив
+        double[] keys = finalPrices();
+        if (!ascending) {
+            for (int i = 0; i < keys.length; i++) keys[i] = -keys[i];
+        }
+        return sortedOrder(keys);
+    }
+
+    // Итоговые цены всех строк: векторный проход по колонкам каждой страницы
+    public double[] finalPrices() {
+        double[] out = new double[size];
+        double[] page = new double[PAGE_SIZE];
+        for (int p = 0; p < pageCount; p++) {
+            PriceKernels.difference(pages[p].basePrices, pages[p].discounts, page, 0, counts[p]);
+            System.arraycopy(page, 0, out, starts[p], counts[p]);
+        }
+        return out;
+    }
+
+    // Устойчивая сортировка номеров строк по ключам слиянием — без упаковки в Integer.
+    // Ключи переставляются вместе с номерами, чтобы сравнения шли по непрерывной памяти.
+    static int[] sortedOrder(double[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        int[] orderBuf = new int[n];
+        double[] keyBuf = new double[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, n);
+                if (keys[mid - 1] <= keys[mid]) continue;
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    if (keys[j] < keys[i]) {
+                        keyBuf[k] = keys[j];
+                        orderBuf[k++] = order[j++];
+                    } else {
+                        keyBuf[k] = keys[i];
+                        orderBuf[k++] = order[i++];
+                    }
+                }
+                System.arraycopy(keys, i, keyBuf, k, mid - i);
+                System.arraycopy(order, i, orderBuf, k, mid - i);
+                k += mid - i;
+                System.arraycopy(keyBuf, lo, keys, lo, k - lo);
+                System.arraycopy(orderBuf, lo, order, lo, k - lo);
+            }
+        }
+        return order;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // === Представления в виде Tariff ===
+    // Объект Tariff для строки; создаётся при каждом вызове и в хранилище не остаётся
+    public Tariff tariffAt(int row) {
+        int p = pageOf(row);
+        return tariffAt(pages[p], row - starts[p]);
+    }
+
+    private Tariff tariffAt(Page page, int at) {
+        double discount = page.discounts[at];
+        try {
+            DiscountStrategy strategy = discount > 0 ? new FixedDiscount(discount) : NoDiscount.INSTANCE;
+            return new Tariff(page.ids[at], dictionary.decode(page.destinations[at]), page.basePrices[at], strategy);
+        } catch (InvalidTariffException e) {
+            // в хранилище попадают только проверенные значения
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Только для чтения: элементы создаются при обращении, сам список памяти под тарифы не держит.
+    // Для опубликованной версии действителен всегда — она не меняется.
+    public List<Tariff> asList() {
+        return new TariffListView(0, size);
+    }
+
+    public List<Tariff> toList(int from, int to) {
+        List<Tariff> list = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            list.add(tariffAt(i));
+        }
+        return list;
+    }
+
+    private final class TariffListView extends AbstractList<Tariff> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        TariffListView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Tariff get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return tariffAt(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    // Последовательный проход по строкам без создания объектов и без поиска страницы на каждую строку:
+    // while (c.next()) { c.finalPrice() ... }
+    public final class Cursor {
+        private int row = -1;
+        private int p;
+        private int at = -1;
+        private Page page = pageCount > 0 ? pages[0] : null;
+
+        public boolean next() {
+            if (++row >= size) {
+                return false;
+            }
+            if (++at == counts[p]) {
+                page = pages[++p];
+                at = 0;
+            }
+            return true;
+        }
+
+        public int row() {
+            return row;
+        }
+
+        public long id() {
+            return page.ids[at];
+        }
+
+        public String destination() {
+            return dictionary.decode(page.destinations[at]);
+        }
+
+        public int destinationCode() {
+            return page.destinations[at];
+        }
+
+        public double basePrice() {
+            return page.basePrices[at];
+        }
+
+        public double discount() {
+            return page.discounts[at];
+        }
+
+        public double finalPrice() {
+            return page.basePrices[at] - page.discounts[at];
+        }
+
+        public Tariff toTariff() {
+            return tariffAt(page, at);
+        }
+    }
+}
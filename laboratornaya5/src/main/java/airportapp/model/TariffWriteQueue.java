@@ -0,0 +1,203 @@
+// src/airportapp/model/TariffWriteQueue.java
+package airportapp.model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Очередь отложенной записи (write-behind) для одиночных изменений от многих потоков.
+// SQLite допускает одного писателя, и каждая отдельная транзакция платит за синхронизацию
+// журнала с диском. Здесь вызывающие только ставят изменение в очередь и получают future,
+// а единственный поток-писатель забирает до maxBatch изменений (подождав новые не дольше linger)
+// и записывает их одной транзакцией — group commit. Транзакция группы фиксируется с
+// synchronous=FULL независимо от airport.db.synchronous, поэтому future завершается, только
+// когда запись на диске: подтверждённое изменение переживает и отключение питания. Один fsync
+// делится на всю группу — в этом и смысл group commit.
+//
+// Ошибка в группе откатывает её целиком; тогда изменения группы повторяются по одному,
+// чтобы одно неверное изменение не отклонило чужие. Кэш Airport обновляется до освобождения
+// писателя, так что версии кэша идут в порядке фиксаций и с прямыми addTariff/addTariffs.
+public class TariffWriteQueue implements AutoCloseable {
+    public static final int DEFAULT_MAX_BATCH = 1000;
+    public static final Duration DEFAULT_LINGER = Duration.ofMillis(2);
+    // Сколько изменений может ждать записи; дальше вызывающие блокируются (обратное давление)
+    private static final int CAPACITY_BATCHES = 16;
+
+    enum Kind { ADD, UPDATE, REMOVE }
+
+    record Mutation(Kind kind, long id, Tariff tariff) {}
+
+    private record Pending(Mutation mutation, CompletableFuture<Object> result) {}
+
+    // Группа зафиксирована в БД, но кэш Airport не удалось привести в соответствие
+    static final class CommittedException extends RuntimeException {
+        CommittedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final Pending STOP = new Pending(null, null);
+
+    private final Airport airport;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    public TariffWriteQueue(Airport airport) {
+        this(airport, DEFAULT_MAX_BATCH, DEFAULT_LINGER);
+    }
+
+    public TariffWriteQueue(Airport airport, int maxBatch, Duration linger) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Размер группы должен быть положительным");
+        }
+        this.airport = airport;
+        this.maxBatch = maxBatch;
+        this.lingerNanos = linger.toNanos();
+        this.queue = new ArrayBlockingQueue<>(maxBatch * CAPACITY_BATCHES);
+        this.writer = Thread.ofPlatform().name("tariff-writer").daemon().start(this::run);
+    }
+
+    // Сохранённый тариф с присвоенным id
+    public CompletableFuture<Tariff> add(Tariff tariff) {
+        Objects.requireNonNull(tariff, "tariff");
+        return submit(new Mutation(Kind.ADD, Tariff.NO_ID, tariff));
+    }
+
+    // Изменённый тариф; null — строки с таким id нет
+    public CompletableFuture<Tariff> update(long id, Tariff updated) {
+        Objects.requireNonNull(updated, "updated");
+        return submit(new Mutation(Kind.UPDATE, id, updated));
+    }
+
+    // false — строки с таким id нет
+    public CompletableFuture<Boolean> remove(long id) {
+        return submit(new Mutation(Kind.REMOVE, id, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(Mutation mutation) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Очередь записи закрыта"));
+        }
+        try {
+            queue.put(new Pending(mutation, result));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+        }
+        // Писатель уже завершился и мог не увидеть это изменение
+        if (stopped) {
+            failRemaining();
+        }
+        return (CompletableFuture<T>) result;
+    }
+
+    // Поставленные до закрытия изменения записываются; новые отклоняются
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(STOP);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        try {
+            boolean stopping = false;
+            while (!stopping) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - batch.size());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatch && batch.getLast() != STOP) {
+                    long left = deadline - System.nanoTime();
+                    Pending next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+                stopping = batch.remove(STOP);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped = true;
+            failRemaining();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Mutation> mutations = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            mutations.add(p.mutation());
+        }
+        List<TariffChangeEvent> events = new ArrayList<>();
+        Object[] results;
+        try {
+            results = airport.writeMutations(mutations, events);
+        } catch (CommittedException e) {
+            // уже записано — повторять нельзя
+            for (Pending p : batch) {
+                p.result().completeExceptionally(e);
+            }
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            for (Pending p : batch) {
+                write(List.of(p));
+            }
+            return;
+        }
+        // Запись зафиксирована и кэш обновлён: ошибка подписчика доходит до вызывающих, как у
+        // Airport.addTariff, но группу не повторяет
+        RuntimeException listenerError = null;
+        try {
+            airport.fireAll(events);
+        } catch (RuntimeException e) {
+            listenerError = e;
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (listenerError != null) {
+                batch.get(i).result().completeExceptionally(listenerError);
+            } else {
+                batch.get(i).result().complete(results[i]);
+            }
+        }
+    }
+
+    private void failRemaining() {
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (Pending p : rest) {
+            if (p != STOP) {
+                p.result().completeExceptionally(new IllegalStateException("Очередь записи закрыта"));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// src/airportapp/model/TieredDiscount.java
+package airportapp.model;
+
+import java.util.Arrays;
+
+// Скидка в процентах, зависящая от цены: чем дороже тариф, тем больше процент.
+// Действует ступень с наибольшим порогом, не превышающим базовую цену; ниже первого порога скидки нет.
+public class TieredDiscount implements DiscountStrategy {
+    private final double[] thresholds;
+    private final double[] percents;
+    private final double[] factors;
+
+    // thresholds — строго возрастающие пороги цены, percents — процент скидки для каждой ступени
+    public TieredDiscount(double[] thresholds, double[] percents) throws InvalidTariffException {
+        if (thresholds.length == 0 || thresholds.length != percents.length) {
+            throw new InvalidTariffException("Для каждого порога нужен свой процент скидки");
+        }
+        for (int k = 0; k < thresholds.length; k++) {
+            if (thresholds[k] < 0 || (k > 0 && thresholds[k] <= thresholds[k - 1])) {
+                throw new InvalidTariffException("Пороги цены должны быть неотрицательными и возрастать");
+            }
+            PercentageDiscount.checkPercent(percents[k]);
+        }
+        this.thresholds = thresholds.clone();
+        this.percents = percents.clone();
+        this.factors = new double[percents.length];
+        for (int k = 0; k < percents.length; k++) {
+            factors[k] = 1.0 - percents[k] / 100.0;
+        }
+    }
+
+    @Override
+    public double applyDiscount(double basePrice) {
+        double factor = 1.0;
+        for (int k = 0; k < thresholds.length && basePrice >= thresholds[k]; k++) {
+            factor = factors[k];
+        }
+        return basePrice * factor;
+    }
+
+    @Override
+    public void applyDiscount(double[] base, double[] out, int from, int to) {
+        PriceKernels.tiered(base, out, from, to, thresholds, factors);
+    }
+
+    public double[] getThresholds() {
+        return thresholds.clone();
+    }
+
+    public double[] getPercents() {
+        return percents.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "TieredDiscount" + Arrays.toString(thresholds) + Arrays.toString(percents);
+    }
+}
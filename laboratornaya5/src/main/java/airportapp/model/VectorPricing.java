@@ -0,0 +1,91 @@
+// src/airportapp/model/VectorPricing.java
+package airportapp.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Реализации PriceKernels на Vector API. Класс загружается только при PriceKernels.VECTOR,
+// поэтому без модуля jdk.incubator.vector приложение работает на скалярных циклах.
+// Основная часть диапазона считается векторами ширины SPECIES, хвост — поштучно.
+final class VectorPricing {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorPricing() {}
+
+    static void subtractClamped(double[] base, double[] out, int from, int to, double amount) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        DoubleVector amountV = DoubleVector.broadcast(SPECIES, amount);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        for (; i < bound; i += SPECIES.length()) {
+            // blend по сравнению дешевле max: max для double обязан обрабатывать NaN и -0.0
+            DoubleVector v = DoubleVector.fromArray(SPECIES, base, i).sub(amountV);
+            v.blend(zero, v.lt(zero)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = Math.max(0.0, base[i] - amount);
+        }
+    }
+
+    static void scale(double[] base, double[] out, int from, int to, double factor) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        DoubleVector factorV = DoubleVector.broadcast(SPECIES, factor);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, base, i).mul(factorV).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = base[i] * factor;
+        }
+    }
+
+    static void tiered(double[] base, double[] out, int from, int to, double[] thresholds, double[] factors) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector b = DoubleVector.fromArray(SPECIES, base, i);
+            DoubleVector factor = DoubleVector.broadcast(SPECIES, 1.0);
+            // пороги возрастают, поэтому каждый следующий перекрывает предыдущий
+            for (int k = 0; k < thresholds.length; k++) {
+                VectorMask<Double> reached = b.compare(VectorOperators.GE, thresholds[k]);
+                factor = factor.blend(factors[k], reached);
+            }
+            b.mul(factor).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            double b = base[i];
+            double factor = 1.0;
+            for (int k = 0; k < thresholds.length && b >= thresholds[k]; k++) {
+                factor = factors[k];
+            }
+            out[i] = b * factor;
+        }
+    }
+
+    static void capDiscount(double[] base, double[] out, int from, int to, double cap) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        DoubleVector capV = DoubleVector.broadcast(SPECIES, cap);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector floor = DoubleVector.fromArray(SPECIES, base, i).sub(capV);
+            DoubleVector v = DoubleVector.fromArray(SPECIES, out, i);
+            v.blend(floor, v.lt(floor)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = Math.max(out[i], base[i] - cap);
+        }
+    }
+
+    static void difference(double[] a, double[] b, double[] out, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).sub(DoubleVector.fromArray(SPECIES, b, i)).intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = a[i] - b[i];
+        }
+    }
+}
@@ -0,0 +1,232 @@
+// src/airportapp/server/Json.java
+package airportapp.server;
+
+import airportapp.model.PriceFormat;
+import airportapp.model.Tariff;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Минимальный JSON для HTTP-интерфейса: запись ответов прямо в StringBuilder и разбор тел запросов
+// в Map / List / String / Double / Boolean / null. Без внешних библиотек.
+final class Json {
+    // Предел вложенности массивов и объектов: разбор рекурсивный, и без предела тело
+    // из тысяч '[' переполняло бы стек потока запроса
+    private static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    // === Запись ===
+    static byte[] tariffs(List<Tariff> tariffs) {
+        StringBuilder sb = new StringBuilder(32 + tariffs.size() * 80);
+        appendTariffs(sb, tariffs);
+        return bytes(sb);
+    }
+
+    static StringBuilder appendTariffs(StringBuilder sb, List<Tariff> tariffs) {
+        sb.append('[');
+        for (int i = 0; i < tariffs.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendTariff(sb, tariffs.get(i));
+        }
+        return sb.append(']');
+    }
+
+    static StringBuilder appendTariff(StringBuilder sb, Tariff t) {
+        sb.append("{\"id\":").append(t.getId()).append(",\"destination\":");
+        appendString(sb, t.getDestination());
+        sb.append(",\"basePrice\":");
+        PriceFormat.appendFixed2(sb, t.getBasePrice());
+        sb.append(",\"price\":");
+        PriceFormat.appendFixed2(sb, t.getPrice());
+        return sb.append('}');
+    }
+
+    static byte[] error(String message) {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        appendString(sb, message == null ? "Ошибка" : message);
+        return bytes(sb.append('}'));
+    }
+
+    static StringBuilder appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"');
+    }
+
+    static byte[] bytes(StringBuilder sb) {
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // === Разбор ===
+    static Object parse(String text) {
+        Json json = new Json(text);
+        Object value = json.value();
+        json.skipSpaces();
+        if (json.pos != text.length()) {
+            throw json.syntaxError("лишние символы после значения");
+        }
+        return value;
+    }
+
+    private Object value() {
+        skipSpaces();
+        if (pos >= text.length()) {
+            throw syntaxError("неожиданный конец");
+        }
+        char c = text.charAt(pos);
+        if (c == '{' || c == '[') {
+            if (++depth > MAX_DEPTH) {
+                throw syntaxError("вложенность больше " + MAX_DEPTH);
+            }
+            Object nested = c == '{' ? object() : array();
+            depth--;
+            return nested;
+        }
+        return switch (c) {
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> number();
+        };
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        skipSpaces();
+        if (peek() == '}') {
+            pos++;
+            return map;
+        }
+        while (true) {
+            skipSpaces();
+            if (peek() != '"') throw syntaxError("ожидалось имя поля");
+            String key = string();
+            skipSpaces();
+            expect(':');
+            map.put(key, value());
+            skipSpaces();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect('}');
+                return map;
+            }
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> list = new ArrayList<>();
+        pos++;
+        skipSpaces();
+        if (peek() == ']') {
+            pos++;
+            return list;
+        }
+        while (true) {
+            list.add(value());
+            skipSpaces();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect(']');
+                return list;
+            }
+        }
+    }
+
+    private String string() {
+        pos++;
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) break;
+            char e = text.charAt(pos++);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) throw syntaxError("неполная escape-последовательность");
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw syntaxError("некорректная escape-последовательность");
+                    }
+                    pos += 4;
+                }
+                default -> sb.append(e);
+            }
+        }
+        throw syntaxError("незакрытая строка");
+    }
+
+    private Double number() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+        try {
+            return Double.parseDouble(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw syntaxError("ожидалось значение");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, pos)) throw syntaxError("ожидалось значение");
+        pos += word.length();
+        return value;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) throw syntaxError("ожидалось '" + c + "'");
+        pos++;
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : '\0';
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException syntaxError(String message) {
+        return new IllegalArgumentException("Некорректный JSON (позиция " + pos + "): " + message);
+    }
+}
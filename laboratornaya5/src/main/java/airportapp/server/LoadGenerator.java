@@ -0,0 +1,140 @@
+// src/airportapp/server/LoadGenerator.java
+package airportapp.server;
+
+import airportapp.model.LatencyHistogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Нагрузочный клиент для TariffServer: N виртуальных потоков в замкнутом цикле шлют GET-запросы
+// по открытым (keep-alive) соединениям HTTP/1.1 и пишут задержки в LatencyHistogram.
+// Смесь запросов: 80% — поиск по направлению, 10% — top-K, 10% — диапазон цен.
+//
+//   java -cp ... airportapp.server.LoadGenerator --url http://localhost:8080 --threads 64
+//        --seconds 30 --warmup 5 --destinations Москва,Казань,Сочи
+public class LoadGenerator {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<String> destinations;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    private LoadGenerator(String baseUrl, List<String> destinations, ExecutorService executor) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.destinations = destinations;
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String url = "http://localhost:" + TariffServer.DEFAULT_PORT;
+        int threads = 64;
+        int seconds = 10;
+        int warmup = 2;
+        List<String> destinations = List.of("Москва", "Санкт-Петербург", "Казань", "Сочи", "Новосибирск");
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--url" -> url = requireValue(args[i], value);
+                case "--threads" -> threads = Integer.parseInt(requireValue(args[i], value));
+                case "--seconds" -> seconds = Integer.parseInt(requireValue(args[i], value));
+                case "--warmup" -> warmup = Integer.parseInt(requireValue(args[i], value));
+                case "--destinations" -> destinations = List.of(requireValue(args[i], value).split(","));
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+            i++;
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            LoadGenerator generator = new LoadGenerator(url, destinations, executor);
+            for (int t = 0; t < threads; t++) {
+                executor.submit(generator::loop);
+            }
+            Thread.sleep(warmup * 1000L);
+            generator.measuring = true;
+            long start = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            generator.measuring = false;
+            long elapsed = System.nanoTime() - start;
+            generator.running = false;
+            generator.report(threads, elapsed);
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            URI uri = nextUri();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                long nanos = System.nanoTime() - start;
+                if (!measuring) {
+                    continue;
+                }
+                if (response.statusCode() == 200) {
+                    latencies.record(nanos);
+                } else {
+                    errors.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (measuring) errors.incrementAndGet();
+            }
+        }
+    }
+
+    private URI nextUri() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int kind = random.nextInt(10);
+        if (kind < 8) {
+            String destination = destinations.get(random.nextInt(destinations.size()));
+            return URI.create(baseUrl + "/tariffs?destination=" + URLEncoder.encode(destination, StandardCharsets.UTF_8));
+        }
+        if (kind == 8) {
+            return URI.create(baseUrl + "/tariffs/top?k=" + (1 + random.nextInt(100)));
+        }
+        int min = random.nextInt(100) * 100;
+        return URI.create(baseUrl + "/tariffs/range?min=" + min + "&max=" + (min + 500) + "&limit=50");
+    }
+
+    private void report(int threads, long elapsedNanos) {
+        long count = latencies.getCount();
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "Потоков: %d, время: %.1f с, запросов: %d, ошибок: %d%n",
+                threads, seconds, count, errors.get());
+        System.out.printf(Locale.ROOT, "Пропускная способность: %.0f запр/с%n", count / seconds);
+        System.out.printf(Locale.ROOT, "Задержка, мс: среднее %.3f, p50 %.3f, p90 %.3f, p99 %.3f, макс %.3f%n",
+                latencies.getMeanNanos() / 1e6,
+                latencies.percentile(0.50) / 1e6,
+                latencies.percentile(0.90) / 1e6,
+                latencies.percentile(0.99) / 1e6,
+                latencies.getMaxNanos() / 1e6);
+    }
+
+    private static String requireValue(String option, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Не задано значение для " + option);
+        }
+        return value;
+    }
+}
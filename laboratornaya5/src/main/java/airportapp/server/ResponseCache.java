@@ -0,0 +1,62 @@
+// src/airportapp/server/ResponseCache.java
+package airportapp.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// LRU-кэш готовых JSON-ответов на GET-запросы (ключ — путь с параметрами): частые запросы
+// популярных направлений не проходят по таблице повторно. Любое изменение тарифов сбрасывает
+// кэш целиком (invalidate). Ответ, посчитанный до сброса, в кэш уже не попадёт: put принимает
+// его только с тем поколением, которое было до начала расчёта.
+final class ResponseCache {
+    private final Map<String, byte[]> entries;
+    private long generation;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    ResponseCache(int capacity) {
+        entries = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    byte[] get(String key) {
+        byte[] body;
+        synchronized (this) {
+            body = entries.get(key);
+        }
+        (body == null ? misses : hits).incrementAndGet();
+        return body;
+    }
+
+    synchronized void put(String key, long generation, byte[] body) {
+        if (generation == this.generation) {
+            entries.put(key, body);
+        }
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,312 @@
+// src/airportapp/server/TariffServer.java
+package airportapp.server;
+
+import airportapp.model.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP-интерфейс к Airport или PartitionedAirport без окна (Main --server): JSON-ответы на встроенном HttpServer JDK,
+// каждый запрос — в своём виртуальном потоке. Соединения HTTP/1.1 остаются открытыми между
+// запросами: у всех ответов известна длина. GET-ответы кэшируются до первого изменения тарифов.
+//
+//   GET  /tariffs?destination=Москва         тарифы направления (без учёта регистра)
+//   GET  /tariffs/top?k=10[&order=asc]       k самых дорогих (или дешёвых) по итоговой цене
+//   GET  /tariffs/range?min=&max=[&limit=&offset=]   итоговая цена в диапазоне, по возрастанию
+//   POST /tariffs          [{"destination":..,"basePrice":..,"discount":..|"discountPercent":..}]
+//   POST /tariffs/remove   [id, ...]
+//   GET  /health           число тарифов и статистика кэша
+public class TariffServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final int CACHE_ENTRIES = 4096;
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 10_000;
+    private static final int MAX_BODY_BYTES = 16 << 20;
+    // Небольшие POST-запросы к одной БД идут через общую очередь записи и фиксируются группой вместе
+    // с запросами других клиентов; крупные пакеты пишутся своей транзакцией. У секций очереди нет:
+    // запись и так расходится по писателям секций
+    private static final int QUEUED_WRITE_LIMIT = 64;
+
+    @FunctionalInterface
+    private interface Endpoint {
+        byte[] handle(Map<String, String> params, HttpExchange exchange) throws Exception;
+    }
+
+    private final TariffRepository airport;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ResponseCache cache = new ResponseCache(CACHE_ENTRIES);
+    // null для PartitionedAirport
+    private final TariffWriteQueue writeQueue;
+    private final TariffChangeListener invalidator = event -> cache.invalidate();
+
+    public TariffServer(TariffRepository airport, InetSocketAddress address) throws IOException {
+        this.airport = airport;
+        this.writeQueue = airport instanceof Airport single ? new TariffWriteQueue(single) : null;
+        server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/tariffs", exchange -> {
+            if (exchange.getRequestMethod().equals("POST")) {
+                handle(exchange, "POST", 201, this::addTariffs);
+            } else {
+                handle(exchange, "GET", 200, this::byDestination);
+            }
+        });
+        server.createContext("/tariffs/top", exchange -> handle(exchange, "GET", 200, this::top));
+        server.createContext("/tariffs/range", exchange -> handle(exchange, "GET", 200, this::range));
+        server.createContext("/tariffs/remove", exchange -> handle(exchange, "POST", 200, this::removeTariffs));
+        server.createContext("/health", exchange -> handle(exchange, "GET", 200, this::health));
+        airport.addChangeListener(invalidator);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    // Ждёт завершения текущих запросов не дольше секунды
+    @Override
+    public void close() {
+        airport.removeChangeListener(invalidator);
+        server.stop(1);
+        executor.close();
+        if (writeQueue != null) {
+            writeQueue.close();
+        }
+    }
+
+    // === Обработчики ===
+    private byte[] byDestination(Map<String, String> params, HttpExchange exchange) {
+        return Json.tariffs(airport.findByDestination(required(params, "destination")));
+    }
+
+    private byte[] top(Map<String, String> params, HttpExchange exchange) {
+        int k = intParam(params, "k", 10, 1, MAX_LIMIT);
+        boolean ascending = "asc".equalsIgnoreCase(params.get("order"));
+        TariffQuery query = ascending ? TariffQuery.bottomByFinalPrice(k) : TariffQuery.topByFinalPrice(k);
+        return Json.tariffs(airport.query(query));
+    }
+
+    private byte[] range(Map<String, String> params, HttpExchange exchange) {
+        TariffQuery query = TariffQuery.all()
+                .finalPriceBetween(doubleParam(params, "min"), doubleParam(params, "max"))
+                .sortedBy(TariffSort.FINAL_PRICE, true)
+                .limit(intParam(params, "limit", DEFAULT_LIMIT, 1, MAX_LIMIT))
+                .offset(intParam(params, "offset", 0, 0, Integer.MAX_VALUE));
+        return Json.tariffs(airport.query(query));
+    }
+
+    private byte[] addTariffs(Map<String, String> params, HttpExchange exchange) throws Exception {
+        List<Tariff> tariffs = new ArrayList<>();
+        for (Object item : arrayBody(exchange)) {
+            if (!(item instanceof Map<?, ?> fields)) {
+                throw new IllegalArgumentException("Ожидался массив объектов тарифов");
+            }
+            tariffs.add(toTariff(fields));
+        }
+        if (writeQueue == null || tariffs.size() > QUEUED_WRITE_LIMIT) {
+            return Json.tariffs(airport.addTariffs(tariffs));
+        }
+        List<CompletableFuture<Tariff>> pending = new ArrayList<>(tariffs.size());
+        for (Tariff t : tariffs) {
+            pending.add(writeQueue.add(t));
+        }
+        List<Tariff> saved = new ArrayList<>(pending.size());
+        for (CompletableFuture<Tariff> f : pending) {
+            saved.add(await(f));
+        }
+        return Json.tariffs(saved);
+    }
+
+    private byte[] removeTariffs(Map<String, String> params, HttpExchange exchange) throws Exception {
+        List<Object> items = arrayBody(exchange);
+        long[] ids = new long[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            if (!(items.get(i) instanceof Double id) || id != Math.rint(id)) {
+                throw new IllegalArgumentException("Ожидался массив id тарифов");
+            }
+            ids[i] = id.longValue();
+        }
+        int removed = 0;
+        if (writeQueue == null || ids.length > QUEUED_WRITE_LIMIT) {
+            removed = airport.removeTariffs(ids).size();
+        } else {
+            List<CompletableFuture<Boolean>> pending = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                pending.add(writeQueue.remove(id));
+            }
+            for (CompletableFuture<Boolean> f : pending) {
+                if (await(f)) removed++;
+            }
+        }
+        return Json.bytes(new StringBuilder("{\"removed\":").append(removed).append('}'));
+    }
+
+    private byte[] health(Map<String, String> params, HttpExchange exchange) {
+        return Json.bytes(new StringBuilder("{\"tariffs\":").append(airport.countTariffs())
+                .append(",\"cacheEntries\":").append(cache.size())
+                .append(",\"cacheHits\":").append(cache.hits())
+                .append(",\"cacheMisses\":").append(cache.misses())
+                .append('}'));
+    }
+
+    // Ошибка записи пробрасывается как есть, чтобы handle выбрал код ответа
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static Tariff toTariff(Map<?, ?> fields) throws InvalidTariffException {
+        if (!(fields.get("destination") instanceof String destination)) {
+            throw new IllegalArgumentException("Не указано направление");
+        }
+        if (!(fields.get("basePrice") instanceof Double basePrice)) {
+            throw new IllegalArgumentException("Не указана базовая цена");
+        }
+        DiscountStrategy strategy = NoDiscount.INSTANCE;
+        if (fields.get("discount") instanceof Double amount && amount > 0) {
+            strategy = new FixedDiscount(amount);
+        } else if (fields.get("discountPercent") instanceof Double percent && percent > 0) {
+            strategy = new PercentageDiscount(percent);
+        }
+        return new Tariff(destination, basePrice, strategy);
+    }
+
+    // === Обвязка запроса ===
+    // Проверка метода, кэш GET-ответов (кроме /health), ошибки — в JSON с кодом 400/404/405/500
+    private void handle(HttpExchange exchange, String method, int status, Endpoint endpoint) {
+        try (exchange) {
+            String path = exchange.getHttpContext().getPath();
+            if (!exchange.getRequestURI().getPath().equals(path)) {
+                send(exchange, 404, Json.error("Неизвестный адрес"));
+                return;
+            }
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                send(exchange, 405, Json.error("Метод не поддерживается"));
+                return;
+            }
+            boolean cacheable = method.equals("GET") && !path.equals("/health");
+            String key = exchange.getRequestURI().toString();
+            if (cacheable) {
+                byte[] cached = cache.get(key);
+                if (cached != null) {
+                    send(exchange, 200, cached);
+                    return;
+                }
+            }
+            long generation = cache.generation();
+            byte[] body = endpoint.handle(parseQuery(exchange.getRequestURI().getRawQuery()), exchange);
+            if (cacheable) {
+                cache.put(key, generation, body);
+            }
+            send(exchange, status, body);
+        } catch (IllegalArgumentException | InvalidTariffException e) {
+            trySend(exchange, 400, Json.error(e.getMessage()));
+        } catch (Exception e) {
+            trySend(exchange, 500, Json.error(e.getMessage()));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void trySend(HttpExchange exchange, int status, byte[] body) {
+        try {
+            send(exchange, status, body);
+        } catch (IOException | IllegalStateException ignored) {
+            // клиент уже отключился или заголовки ответа уже отправлены
+        }
+    }
+
+    private static List<Object> arrayBody(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (raw.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Слишком большое тело запроса");
+        }
+        if (!(Json.parse(new String(raw, StandardCharsets.UTF_8)) instanceof List<?> list)) {
+            throw new IllegalArgumentException("Ожидался JSON-массив");
+        }
+        return new ArrayList<>(list);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Не задан параметр " + name);
+        }
+        return value;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        int n;
+        try {
+            n = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Параметр " + name + " должен быть целым числом");
+        }
+        if (n < min || n > max) {
+            throw new IllegalArgumentException("Параметр " + name + " вне диапазона " + min + "…" + max);
+        }
+        return n;
+    }
+
+    private static Double doubleParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Параметр " + name + " должен быть числом");
+        }
+    }
+}
@@ -4,27 +4,71 @@ package airportapp.view;
 import airportapp.model.*;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class MainWindow extends JFrame {
-    private final Airport airport = new Airport();
+    private static final int PAGED_THRESHOLD = 50_000;
+    // Строк в одном запросе при постраничной сортировке по цене
+    private static final int PRICE_SORT_PAGE = 4096;
+    private static final int METRICS_REFRESH_MS = 1000;
+    // Пауза в наборе, после которой запускается фильтр
+    private static final int FILTER_DELAY_MS = 120;
+    // Форматы файлов тарифов; формат определяется по расширению — и при сохранении, и при загрузке
+    private static final FileNameExtensionFilter TXT_FILTER =
+            new FileNameExtensionFilter("Текст (*.txt, *.txt.gz)", "txt", "gz");
+    private static final FileNameExtensionFilter SNAPSHOT_FILTER =
+            new FileNameExtensionFilter("Бинарный снапшот (*" + TariffSnapshot.EXTENSION + ")",
+                    TariffSnapshot.EXTENSION.substring(1));
+    private static final FileNameExtensionFilter DELTA_FILTER =
+            new FileNameExtensionFilter("Изменения с прошлой выгрузки (*" + TariffDelta.EXTENSION + ")",
+                    TariffDelta.EXTENSION.substring(1));
+
+    // Вся работа с БД и файлами идёт через асинхронный фасад; EDT только отрисовывает результат.
+    // БД открывается в фоне, окно показывается сразу: до готовности service и airport — null,
+    // а кнопки и поиск отключены
+    private final CompletableFuture<AsyncAirport> opening = AsyncAirport.open();
+    private AsyncAirport service;
+    private Airport airport;
+    private final List<JComponent> dataControls = new ArrayList<>();
+    private final StatusBar statusBar = new StatusBar();
     private TariffTableModel tableModel;
     private JTable table; // ← ВАЖНО: поле класса
+    private final Timer metricsTimer = new Timer(METRICS_REFRESH_MS, e -> showMetrics());
+
+    // Фильтр по направлению: запросы уходят в фоновый поток, устаревшие ответы отбрасываются
+    private final JTextField filterField = new JTextField(25);
+    private final Timer filterTimer = new Timer(FILTER_DELAY_MS, e -> runFilter());
+    private DestinationFilter destinationFilter;
+    private CompletableFuture<?> pendingFilter;
+    private long filterGeneration;
+    private long[] filteredIds; // null — фильтр не задан
+    private StatisticsDialog statisticsDialog;
 
     public MainWindow() {
         setTitle("Система управления тарифами аэропорта");
-        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         addWindowListener(new WindowAdapter() {
             @Override
-            public void windowClosing(WindowEvent e) {
-                System.exit(0);
+            public void windowClosed(WindowEvent e) {
+                // Дожидаемся фоновых операций и закрываем БД; JVM завершится сама, когда окон не останется
+                metricsTimer.stop();
+                filterTimer.stop();
+                opening.thenAccept(AsyncAirport::close);
             }
         });
 
@@ -32,11 +76,21 @@ public class MainWindow extends JFrame {
         table = new JTable(tableModel); // ← используем поле
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-        // Загрузка данных при старте (из памяти — они сохраняются в TXT вручную)
-        tableModel.setTariffs(airport.getTariffs());
-
         JScrollPane scrollPane = new JScrollPane(table);
 
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.add(new JLabel("Поиск по направлению:"));
+        filterPanel.add(filterField);
+        filterTimer.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { filterTimer.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { filterTimer.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { filterTimer.restart(); }
+        });
+
         JPanel buttonPanel = new JPanel(new FlowLayout());
         JButton addButton = new JButton("Добавить");
         JButton editButton = new JButton("Изменить");
@@ -45,6 +99,9 @@ public class MainWindow extends JFrame {
         JButton sortButton = new JButton("Сортировка по итог. цене");
         JButton saveButton = new JButton("Сохранить");
         JButton loadButton = new JButton("Загрузить");
+        JButton statsButton = new JButton("Статистика");
+        JButton repriceButton = new JButton("Переоценка");
+        JButton undoRepriceButton = new JButton("Отменить переоценку");
 
         addButton.addActionListener(this::handleAdd);
         editButton.addActionListener(this::handleEdit);
@@ -53,6 +110,15 @@ public class MainWindow extends JFrame {
         sortButton.addActionListener(this::handleSort);
         saveButton.addActionListener(this::handleSave);
         loadButton.addActionListener(this::handleLoad);
+        statsButton.addActionListener(this::handleStatistics);
+        repriceButton.addActionListener(this::handleReprice);
+        undoRepriceButton.addActionListener(this::handleUndoReprice);
+
+        dataControls.addAll(List.of(addButton, editButton, deleteButton, findMaxButton, sortButton,
+                saveButton, loadButton, statsButton, repriceButton, undoRepriceButton, filterField));
+        for (JComponent control : dataControls) {
+            control.setEnabled(false);
+        }
 
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
@@ -61,21 +127,186 @@ public class MainWindow extends JFrame {
         buttonPanel.add(sortButton);
         buttonPanel.add(saveButton);
         buttonPanel.add(loadButton);
+        buttonPanel.add(statsButton);
+        buttonPanel.add(repriceButton);
+        buttonPanel.add(undoRepriceButton);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        southPanel.add(statusBar, BorderLayout.SOUTH);
+
+        // Сводка метрик обновляется раз в секунду; щелчок по ней сохраняет полный отчёт в файл
+        statusBar.setOnMetricsClick(this::handleDumpMetrics);
+        statusBar.showMessage("Открытие базы данных...");
+
+        // Первая отрисовка содержимого — этап запуска в StartupTimeline
+        JPanel content = new JPanel(new BorderLayout()) {
+            private boolean painted;
 
-        setLayout(new BorderLayout());
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                if (!painted) {
+                    painted = true;
+                    StartupTimeline.mark(StartupTimeline.FIRST_PAINT);
+                }
+            }
+        };
+        setContentPane(content);
+        add(filterPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
-        add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
 
-        setSize(850, 500);
+        setSize(1100, 500);
         setLocationRelativeTo(null);
+
+        opening.whenComplete((opened, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                statusBar.showMessage("База данных недоступна");
+                showError("Не удалось открыть базу данных: " + rootCause(error).getMessage());
+            } else if (isDisplayable()) {
+                onDatabaseReady(opened);
+            }
+        }));
+    }
+
+    // Загрузка данных после открытия БД; дальше таблица обновляется по событиям Airport построчно
+    private void onDatabaseReady(AsyncAirport opened) {
+        service = opened;
+        airport = opened.airport();
+        destinationFilter = new DestinationFilter(airport);
+        showAllTariffs();
+        airport.addChangeListener(event -> SwingUtilities.invokeLater(() -> {
+            if (isFiltered()) {
+                // отфильтрованный список пересчитывается: изменённые тарифы могли войти в него или выйти
+                filterTimer.restart();
+            } else if (event.getType() == TariffChangeEvent.Type.RELOADED) {
+                showAllTariffs();
+            } else {
+                if (priceSort != null) {
+                    priceSort.reset();
+                }
+                tableModel.applyChange(event);
+            }
+        }));
+        for (JComponent control : dataControls) {
+            control.setEnabled(true);
+        }
+        showMetrics();
+        metricsTimer.start();
+
+        StartupTimeline.mark(StartupTimeline.DATA_SHOWN);
+        statusBar.showMessage("Готово: тарифов " + airport.countTariffs() + ", запуск "
+                + StartupTimeline.millisTo(StartupTimeline.DATA_SHOWN) + " мс");
+        // после уже поставленных в очередь событий отрисовки, чтобы в отчёт попала первая отрисовка;
+        // -Dairport.startup.exit=true — пробный запуск (профиль appcds): закрыть окно сразу после отчёта
+        SwingUtilities.invokeLater(() -> {
+            StartupTimeline.finish();
+            if (Boolean.getBoolean("airport.startup.exit")) {
+                dispose();
+            }
+        });
+    }
+
+    // Большие таблицы показываем постранично: в модели только видимые страницы
+    private void showAllTariffs() {
+        priceSort = null;
+        if (airport.countTariffs() > PAGED_THRESHOLD) {
+            tableModel.setPageSource(new TariffTableModel.TariffPageSource() {
+                @Override
+                public int size() {
+                    return airport.countTariffs();
+                }
+
+                @Override
+                public List<Tariff> page(int offset, int limit) {
+                    return airport.getTariffs(offset, limit);
+                }
+
+                @Override
+                public boolean appendsAtEnd() {
+                    // новые id больше прежних
+                    return true;
+                }
+            });
+        } else {
+            tableModel.setTariffs(airport.getTariffs());
+        }
+    }
+
+    private boolean isFiltered() {
+        return filteredIds != null;
+    }
+
+    // Каждое нажатие сужает прежний результат (DestinationFilter); в EDT приходит готовый список
+    private void runFilter() {
+        String query = filterField.getText();
+        long generation = ++filterGeneration;
+        if (pendingFilter != null) {
+            pendingFilter.cancel(true);
+        }
+        if (query.isBlank()) {
+            pendingFilter = null;
+            filteredIds = null;
+            destinationFilter.reset();
+            showAllTariffs();
+            statusBar.showMessage("Готово");
+            return;
+        }
+        CompletableFuture<DestinationFilter.Result> search = service.filter(destinationFilter, query);
+        pendingFilter = search;
+        onEdt(search, result -> {
+            if (generation == filterGeneration) {
+                showFiltered(result.ids(), generation);
+                statusBar.showMessage("Найдено тарифов: " + result.ids().length
+                        + ", направлений: " + result.destinations());
+            }
+        });
+    }
+
+    private void showFiltered(long[] ids, long generation) {
+        priceSort = null;
+        filteredIds = ids;
+        if (ids.length > PAGED_THRESHOLD) {
+            tableModel.setPageSource(idPageSource(ids));
+            return;
+        }
+        CompletableFuture<List<Tariff>> rows = service.getTariffsByIds(ids, 0, ids.length);
+        pendingFilter = rows;
+        onEdt(rows, list -> {
+            if (generation == filterGeneration) {
+                tableModel.setTariffs(list);
+            }
+        });
+    }
+
+    private TariffTableModel.TariffPageSource idPageSource(long[] ids) {
+        return new TariffTableModel.TariffPageSource() {
+            @Override
+            public int size() {
+                return ids.length;
+            }
+
+            @Override
+            public List<Tariff> page(int offset, int limit) {
+                return airport.getTariffsByIds(ids, offset, Math.min(ids.length, offset + limit));
+            }
+        };
     }
 
     private void handleAdd(ActionEvent e) {
         TariffEditDialog dialog = new TariffEditDialog(this, null);
         Tariff result = dialog.showDialog();
         if (result != null) {
-            airport.addTariff(result);
-            tableModel.setTariffs(airport.getTariffs());
+            onEdt(service.addTariff(result), saved -> {
+                // событие о вставке уже применено к модели — выделяем новую строку
+                int row = tableModel.rowOf(saved.getId());
+                if (row >= 0) {
+                    table.setRowSelectionInterval(row, row);
+                    table.scrollRectToVisible(table.getCellRect(row, 0, true));
+                }
+                statusBar.showMessage("Тариф добавлен");
+            });
         }
     }
 
@@ -86,12 +317,16 @@ public class MainWindow extends JFrame {
             return;
         }
         Tariff old = tableModel.getTariffAt(row);
+        if (old == null) {
+            // в постраничном режиме строка могла исчезнуть до прихода события об удалении
+            showError("Тариф уже удалён");
+            return;
+        }
         TariffEditDialog dialog = new TariffEditDialog(this, old);
         Tariff updated = dialog.showDialog();
         if (updated != null) {
-            airport.removeTariff(old);
-            airport.addTariff(updated);
-            tableModel.setTariffs(airport.getTariffs());
+            onEdt(service.updateTariff(old.getId(), updated), saved ->
+                    statusBar.showMessage(saved != null ? "Тариф изменён" : "Тариф уже удалён"));
         }
     }
 
@@ -102,95 +337,275 @@ public class MainWindow extends JFrame {
             return;
         }
         Tariff toRemove = tableModel.getTariffAt(row);
+        if (toRemove == null) {
+            // в постраничном режиме строка могла исчезнуть до прихода события об удалении
+            showError("Тариф уже удалён");
+            return;
+        }
         int confirm = JOptionPane.showConfirmDialog(this, "Удалить выбранный тариф?", "Подтверждение", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            airport.removeTariff(toRemove);
-            tableModel.setTariffs(airport.getTariffs());
+            onEdt(service.removeTariff(toRemove), ignored -> statusBar.showMessage("Тариф удалён"));
         }
     }
 
     private void handleFindMax(ActionEvent e) {
-        Tariff max = airport.findMaxPriceTariff();
-        if (max == null) {
-            JOptionPane.showMessageDialog(this, "Нет добавленных тарифов.", "Информация", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(this, max.toString(), "Максимальный тариф", JOptionPane.INFORMATION_MESSAGE);
-        }
+        onEdt(service.findMaxPriceTariff(), max -> {
+            if (max == null) {
+                JOptionPane.showMessageDialog(this, "Нет добавленных тарифов.", "Информация", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, max.toString(), "Максимальный тариф", JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
     }
 
     private boolean sortAscending = true;
+    private PriceSortSource priceSort; // null — таблица не отсортирована по цене постранично
     private void handleSort(ActionEvent e) {
-        List<Tariff> list = new ArrayList<>(airport.getTariffs());
-        list.sort((t1, t2) -> {
-            double p1 = t1.getPrice(), p2 = t2.getPrice();
-            return sortAscending ? Double.compare(p1, p2) : Double.compare(p2, p1);
-        });
+        boolean ascending = sortAscending;
         sortAscending = !sortAscending;
-        tableModel.setTariffs(list);
+        String done = ascending ? "Отсортировано по возрастанию цены" : "Отсортировано по убыванию цены";
+        if (isFiltered()) {
+            // сортируются только найденные тарифы
+            long generation = filterGeneration;
+            onEdt(service.sortIdsByFinalPrice(filteredIds, ascending), sorted -> {
+                if (generation == filterGeneration) {
+                    showFiltered(sorted, generation);
+                    statusBar.showMessage(done);
+                }
+            });
+            return;
+        }
+        // Без фильтра сортирует БД по индексу итоговой цены; запросы уходят в фоновый поток
+        long generation = filterGeneration;
+        TariffQuery byPrice = TariffQuery.all().sortedBy(TariffSort.FINAL_PRICE, ascending);
+        if (airport.countTariffs() > PAGED_THRESHOLD) {
+            priceSort = new PriceSortSource(byPrice);
+            tableModel.setPageSource(priceSort);
+            statusBar.showMessage(done);
+            return;
+        }
+        statusBar.showMessage("Сортировка...");
+        onEdt(service.query(byPrice), sorted -> {
+            if (generation == filterGeneration) {
+                priceSort = null;
+                tableModel.setTariffs(sorted);
+                statusBar.showMessage(done);
+            }
+        });
+    }
+
+    // Большая таблица по цене: страницы по PRICE_SORT_PAGE строк догружаются в фоне по ключу последней
+    // загруженной строки (after) — без OFFSET, каждый запрос идёт диапазоном индекса.
+    // Пока страница не пришла, её строки пустые; по приходу модель перерисовывается
+    private final class PriceSortSource implements TariffTableModel.TariffPageSource {
+        private final TariffQuery query;
+        private final List<Tariff> loaded = new ArrayList<>();
+        private int wanted;
+        private boolean exhausted;
+        private CompletableFuture<List<Tariff>> pending;
+
+        PriceSortSource(TariffQuery query) {
+            this.query = query.limit(PRICE_SORT_PAGE);
+        }
+
+        @Override
+        public int size() {
+            return airport.countTariffs();
+        }
+
+        @Override
+        public List<Tariff> page(int offset, int limit) {
+            wanted = Math.max(wanted, offset + limit);
+            loadMore();
+            int to = Math.min(loaded.size(), offset + limit);
+            return offset < to ? loaded.subList(offset, to) : List.of();
+        }
+
+        // Таблица изменилась — загруженный порядок устарел, читаем заново с начала
+        void reset() {
+            if (pending != null) {
+                pending.cancel(true);
+                pending = null;
+            }
+            loaded.clear();
+            wanted = 0;
+            exhausted = false;
+        }
+
+        // Следующие страницы по одной, пока не дойдём до запрошенной строки
+        private void loadMore() {
+            if (pending != null || exhausted || loaded.size() >= wanted) {
+                return;
+            }
+            CompletableFuture<List<Tariff>> next = service.query(loaded.isEmpty() ? query : query.after(loaded.getLast()));
+            pending = next;
+            onEdt(next, rows -> {
+                if (pending != next || priceSort != this) {
+                    return;
+                }
+                pending = null;
+                loaded.addAll(rows);
+                exhausted = rows.size() < PRICE_SORT_PAGE;
+                tableModel.pagesLoaded();
+                loadMore();
+            });
+        }
     }
 
     private void handleSave(ActionEvent e) {
-        JFileChooser chooser = new JFileChooser();
+        if (statusBar.isTaskRunning()) {
+            showError("Дождитесь завершения текущей операции.");
+            return;
+        }
+        JFileChooser chooser = tariffFileChooser();
         chooser.setSelectedFile(new File("tariffs.txt"));
         if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                airport.saveToFile(chooser.getSelectedFile().getAbsolutePath());
-                JOptionPane.showMessageDialog(this, "Данные сохранены в TXT!", "Успех", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                showError("Ошибка: " + ex.getMessage());
-            }
+            Path file = withChosenExtension(chooser);
+            runLongTask("Сохранение в " + file.getFileName() + "...",
+                    service.saveToFile(file, statusBar.progressListener()),
+                    rows -> "Данные сохранены (" + formatName(file) + "): " + rows + " строк");
         }
     }
 
     private void handleLoad(ActionEvent e) {
-        JFileChooser chooser = new JFileChooser();
+        if (statusBar.isTaskRunning()) {
+            showError("Дождитесь завершения текущей операции.");
+            return;
+        }
+        JFileChooser chooser = tariffFileChooser();
         if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                airport.loadFromFile(chooser.getSelectedFile().getAbsolutePath());
-                tableModel.setTariffs(airport.getTariffs());
-                JOptionPane.showMessageDialog(this, "Данные загружены из TXT!", "Успех", JOptionPane.INFORMATION_MESSAGE);
-            } catch (Exception ex) {
-                showError("Ошибка: " + ex.getMessage());
+            Path file = chooser.getSelectedFile().toPath();
+            runLongTask("Загрузка из " + file.getFileName() + "...",
+                    service.loadFromFile(file, statusBar.progressListener()),
+                    rows -> "Данные загружены (" + formatName(file) + "): " + rows + " строк");
+        }
+    }
+
+    private static JFileChooser tariffFileChooser() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.addChoosableFileFilter(TXT_FILTER);
+        chooser.addChoosableFileFilter(SNAPSHOT_FILTER);
+        chooser.addChoosableFileFilter(DELTA_FILTER);
+        chooser.setFileFilter(TXT_FILTER);
+        return chooser;
+    }
+
+    // Если расширение не указано, оно берётся из выбранного фильтра
+    private static Path withChosenExtension(JFileChooser chooser) {
+        File file = chooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            if (chooser.getFileFilter() == SNAPSHOT_FILTER) {
+                file = new File(file.getPath() + TariffSnapshot.EXTENSION);
+            } else if (chooser.getFileFilter() == DELTA_FILTER) {
+                file = new File(file.getPath() + TariffDelta.EXTENSION);
             }
         }
+        return file.toPath();
     }
 
-    private void showError(String message) {
-        JOptionPane.showMessageDialog(this, message, "Ошибка", JOptionPane.ERROR_MESSAGE);
+    private static String formatName(Path file) {
+        if (TariffDelta.isDelta(file.toString())) return "дельта изменений";
+        return TariffSnapshot.isSnapshot(file.toString()) ? "снапшот" : "TXT";
     }
 
-    private static class TariffTableModel extends AbstractTableModel {
-        private final String[] COLUMNS = {"Направление", "Базовая цена", "Итоговая цена"};
-        private List<Tariff> data = new ArrayList<>();
+    // Таблица обновится по событию Airport (UPDATED или, для крупной переоценки, RELOADED)
+    private void handleReprice(ActionEvent e) {
+        BulkReprice op = new RepriceDialog(this).showDialog();
+        if (op != null) {
+            onEdt(service.reprice(op), done -> statusBar.showMessage(done.rows() == 0
+                    ? "Нет тарифов, подходящих под условия"
+                    : done.description() + ": изменено тарифов " + done.rows()));
+        }
+    }
 
-        public TariffTableModel(List<Tariff> initial) {
-            this.data = new ArrayList<>(initial);
+    private void handleUndoReprice(ActionEvent e) {
+        int answer = JOptionPane.showConfirmDialog(this, "Вернуть цены последней переоценки?",
+                "Подтверждение", JOptionPane.YES_NO_OPTION);
+        if (answer == JOptionPane.YES_OPTION) {
+            onEdt(service.undoLastReprice(), restored -> statusBar.showMessage(restored < 0
+                    ? "Переоценок для отмены нет"
+                    : "Переоценка отменена, восстановлено тарифов: " + restored));
         }
+    }
 
-        public void setTariffs(List<Tariff> list) {
-            this.data = new ArrayList<>(list);
-            fireTableDataChanged();
+    // Окно статистики одно: повторное нажатие выводит его на передний план
+    private void handleStatistics(ActionEvent e) {
+        if (statisticsDialog == null || !statisticsDialog.isDisplayable()) {
+            statisticsDialog = new StatisticsDialog(this, service);
         }
+        statisticsDialog.setVisible(true);
+        statisticsDialog.toFront();
+    }
 
-        public Tariff getTariffAt(int row) {
-            return data.get(row);
+    private void showMetrics() {
+        AirportMetrics metrics = airport.getMetrics();
+        statusBar.showMetrics(metrics.getSummary(), metrics.report());
+    }
+
+    private void handleDumpMetrics() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("airport-metrics.txt"));
+        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            Path file = chooser.getSelectedFile().toPath();
+            try {
+                airport.getMetrics().dump(file);
+                statusBar.showMessage("Метрики сохранены в " + file.getFileName());
+            } catch (IOException ex) {
+                showError("Ошибка сохранения метрик: " + ex.getMessage());
+            }
         }
+    }
 
-        @Override
-        public int getRowCount() { return data.size(); }
-        @Override
-        public int getColumnCount() { return COLUMNS.length; }
-        @Override
-        public String getColumnName(int col) { return COLUMNS[col]; }
-        @Override
-        public Object getValueAt(int row, int col) {
-            Tariff t = data.get(row);
-            return switch (col) {
-                case 0 -> t.getDestination();
-                case 1 -> String.format("%.2f", t.getBasePrice());
-                case 2 -> String.format("%.2f", t.getPrice());
-                default -> "";
-            };
+    // Длительная операция с прогрессом в строке состояния и возможностью отмены
+    private void runLongTask(String title, CompletableFuture<Long> task, Function<Long, String> doneMessage) {
+        statusBar.startTask(title, () -> {
+            if (task.cancel(true)) {
+                statusBar.showMessage("Отмена...");
+            }
+        });
+        task.whenComplete((rows, error) -> {
+            if (task.isCancelled()) {
+                // результат отменён сразу, но поток мог успеть зафиксировать изменения — ждём его
+                AsyncAirport.finished(task).thenAccept(completed -> SwingUtilities.invokeLater(() ->
+                        statusBar.finishTask(completed
+                                ? "Операция завершилась до отмены, изменения сохранены"
+                                : "Операция отменена, данные не изменены")));
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    statusBar.finishTask("Ошибка");
+                    showError("Ошибка: " + rootCause(error).getMessage());
+                } else {
+                    statusBar.finishTask(doneMessage.apply(rows));
+                }
+            });
+        });
+    }
+
+    // Результат фоновой операции обрабатывается в EDT; ошибки показываются пользователю,
+    // отменённые операции (например, устаревший запрос фильтра) молча пропускаются
+    private <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess) {
+        future.whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                showError("Ошибка: " + rootCause(error).getMessage());
+            } else {
+                onSuccess.accept(value);
+            }
+        }));
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
         }
+        return error;
+    }
+
+    private void showError(String message) {
+        JOptionPane.showMessageDialog(this, message, "Ошибка", JOptionPane.ERROR_MESSAGE);
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+// src/airportapp/view/RepriceDialog.java
+package airportapp.view;
+
+import airportapp.model.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+
+// Параметры массовой переоценки: действие, значение и отбор тарифов (пустое поле — без ограничения)
+public class RepriceDialog extends JDialog {
+    private static final String[] ACTIONS = {
+        "Изменить базовую цену, %",
+        "Установить скидку, руб.",
+        "Ограничить итоговую цену, руб.",
+        "Установить скидку, %"
+    };
+
+    private BulkReprice result = null;
+    private final JComboBox<String> actionBox = new JComboBox<>(ACTIONS);
+    private final JTextField valueField = new JTextField(10);
+    private final JTextField destField = new JTextField(20);
+    private final JTextField minField = new JTextField(10);
+    private final JTextField maxField = new JTextField(10);
+
+    public RepriceDialog(Frame owner) {
+        super(owner, "Массовая переоценка", true);
+        setupUI();
+    }
+
+    private void setupUI() {
+        setLayout(new BorderLayout());
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+
+        gbc.gridx = 0; gbc.gridy = 0; form.add(new JLabel("Действие:"), gbc);
+        gbc.gridx = 1; form.add(actionBox, gbc);
+        gbc.gridx = 0; gbc.gridy = 1; form.add(new JLabel("Значение:"), gbc);
+        gbc.gridx = 1; form.add(valueField, gbc);
+        gbc.gridx = 0; gbc.gridy = 2; form.add(new JLabel("Направление начинается с:"), gbc);
+        gbc.gridx = 1; form.add(destField, gbc);
+        gbc.gridx = 0; gbc.gridy = 3; form.add(new JLabel("Базовая цена от:"), gbc);
+        gbc.gridx = 1; form.add(minField, gbc);
+        gbc.gridx = 0; gbc.gridy = 4; form.add(new JLabel("Базовая цена до:"), gbc);
+        gbc.gridx = 1; form.add(maxField, gbc);
+
+        JPanel btns = new JPanel();
+        JButton ok = new JButton("OK");
+        JButton cancel = new JButton("Отмена");
+        ok.addActionListener(this::validateAndClose);
+        cancel.addActionListener(e -> dispose());
+        btns.add(ok);
+        btns.add(cancel);
+
+        add(form, BorderLayout.CENTER);
+        add(btns, BorderLayout.SOUTH);
+        pack();
+        setLocationRelativeTo(getOwner());
+    }
+
+    private void validateAndClose(ActionEvent e) {
+        try {
+            double value = parseNum(valueField.getText(), "значение");
+            BulkReprice op = switch (actionBox.getSelectedIndex()) {
+                case 0 -> BulkReprice.scaleBasePrice(value);
+                case 1 -> BulkReprice.setDiscount(value);
+                case 2 -> BulkReprice.capFinalPrice(value);
+                default -> BulkReprice.applyDiscount(new PercentageDiscount(value));
+            };
+            result = op.destinationStartsWith(destField.getText())
+                    .basePriceBetween(parseOptional(minField.getText(), "цена от"),
+                            parseOptional(maxField.getText(), "цена до"));
+            dispose();
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    public BulkReprice showDialog() {
+        setVisible(true);
+        return result;
+    }
+
+    private static Double parseOptional(String s, String field) throws InvalidTariffException {
+        return s == null || s.isBlank() ? null : parseNum(s, field);
+    }
+
+    // Отрицательные значения допустимы: снижение базовой цены задаётся отрицательным процентом
+    private static double parseNum(String s, String field) throws InvalidTariffException {
+        if (s == null || s.trim().isEmpty()) {
+            throw new InvalidTariffException("Поле '" + field + "' не может быть пустым.");
+        }
+        try {
+            double v = Double.parseDouble(s.trim().replace(',', '.'));
+            if (Double.isNaN(v) || Double.isInfinite(v)) throw new InvalidTariffException("Некорректное число.");
+            return v;
+        } catch (NumberFormatException ex) {
+            throw new InvalidTariffException("Некорректный формат числа.");
+        }
+    }
+}
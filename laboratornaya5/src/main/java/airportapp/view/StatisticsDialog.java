@@ -0,0 +1,124 @@
+// src/airportapp/view/StatisticsDialog.java
+package airportapp.view;
+
+import airportapp.model.*;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Немодальная сводка итоговых цен по направлениям. Пока окно открыто, оно обновляется
+// по событиям Airport, но не чаще раза в REFRESH_DELAY_MS: при импорте событий много.
+public class StatisticsDialog extends JDialog {
+    private static final int REFRESH_DELAY_MS = 500;
+
+    private final AsyncAirport service;
+    private final StatsTableModel tableModel = new StatsTableModel();
+    private final JLabel overallLabel = new JLabel(" ");
+    private final Timer refreshTimer = new Timer(REFRESH_DELAY_MS, e -> refresh());
+    private final TariffChangeListener listener = event -> SwingUtilities.invokeLater(refreshTimer::restart);
+    private CompletableFuture<TariffStatistics.Snapshot> pending;
+
+    public StatisticsDialog(Frame owner, AsyncAirport service) {
+        super(owner, "Статистика по направлениям", false);
+        this.service = service;
+        refreshTimer.setRepeats(false);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                service.airport().removeChangeListener(listener);
+                refreshTimer.stop();
+                if (pending != null) pending.cancel(true);
+            }
+        });
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+
+        setLayout(new BorderLayout());
+        overallLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        add(overallLabel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        service.airport().addChangeListener(listener);
+        refresh();
+
+        setSize(800, 400);
+        setLocationRelativeTo(owner);
+    }
+
+    private void refresh() {
+        if (pending != null) pending.cancel(true);
+        CompletableFuture<TariffStatistics.Snapshot> task = service.statistics();
+        pending = task;
+        task.whenComplete((snapshot, error) -> SwingUtilities.invokeLater(() -> {
+            if (task.isCancelled() || !isDisplayable()) {
+                return;
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                overallLabel.setText("Ошибка: " + cause.getMessage());
+            } else {
+                show(snapshot);
+            }
+        }));
+    }
+
+    private void show(TariffStatistics.Snapshot snapshot) {
+        DestinationStats all = snapshot.overall();
+        overallLabel.setText(all.count() == 0 ? "Тарифов нет" : String.format(
+                "Всего тарифов: %d, направлений: %d, средняя цена: %s, медиана: %s, скидки: %s",
+                all.count(), snapshot.byDestination().size(), PriceFormat.format(all.mean()),
+                PriceFormat.format(all.median()), PriceFormat.format(all.discountTotal())));
+        tableModel.setStats(snapshot.byDestination());
+    }
+
+    private static final class StatsTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Направление", "Тарифов", "Мин.", "Макс.",
+                "Средняя", "Медиана", "90%", "Сумма скидок"};
+
+        private List<DestinationStats> stats = List.of();
+
+        void setStats(List<DestinationStats> stats) {
+            this.stats = stats;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() { return stats.size(); }
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+        @Override
+        public String getColumnName(int col) { return COLUMNS[col]; }
+        @Override
+        public Class<?> getColumnClass(int col) {
+            return switch (col) {
+                case 0 -> String.class;
+                case 1 -> Long.class;
+                default -> Double.class;
+            };
+        }
+        @Override
+        public Object getValueAt(int row, int col) {
+            DestinationStats s = stats.get(row);
+            return switch (col) {
+                case 0 -> s.destination();
+                case 1 -> s.count();
+                case 2 -> s.min();
+                case 3 -> s.max();
+                case 4 -> s.mean();
+                case 5 -> s.median();
+                case 6 -> s.p90();
+                case 7 -> s.discountTotal();
+                default -> "";
+            };
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// src/airportapp/view/StatusBar.java
+package airportapp.view;
+
+import airportapp.model.ProgressListener;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Строка состояния главного окна: текст, сводка метрик, прогресс длительной операции и кнопка отмены.
+// Все методы, кроме progressListener(), вызываются только из EDT.
+public class StatusBar extends JPanel {
+    private final JLabel message = new JLabel("Готово");
+    private final JLabel metrics = new JLabel();
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JButton cancelButton = new JButton("Отмена");
+    private Runnable onCancel;
+    private Runnable onMetricsClick;
+
+    public StatusBar() {
+        super(new BorderLayout(8, 0));
+        setBorder(BorderFactory.createEmptyBorder(2, 6, 2, 6));
+        JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 4, 0));
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        cancelButton.setVisible(false);
+        cancelButton.addActionListener(e -> {
+            if (onCancel != null) onCancel.run();
+        });
+        metrics.setForeground(Color.GRAY);
+        metrics.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        metrics.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (onMetricsClick != null) onMetricsClick.run();
+            }
+        });
+        right.add(metrics);
+        right.add(progressBar);
+        right.add(cancelButton);
+        add(message, BorderLayout.CENTER);
+        add(right, BorderLayout.EAST);
+    }
+
+    public void showMessage(String text) {
+        message.setText(text);
+    }
+
+    // Короткая сводка в строке, подробная таблица — во всплывающей подсказке
+    public void showMetrics(String summary, String details) {
+        metrics.setText(summary);
+        metrics.setToolTipText("<html><pre>" + escapeHtml(details) + "</pre></html>");
+    }
+
+    public void setOnMetricsClick(Runnable action) {
+        this.onMetricsClick = action;
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    public void startTask(String text, Runnable onCancel) {
+        this.onCancel = onCancel;
+        message.setText(text);
+        progressBar.setIndeterminate(true);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        cancelButton.setVisible(onCancel != null);
+        cancelButton.setEnabled(true);
+    }
+
+    public void finishTask(String text) {
+        onCancel = null;
+        message.setText(text);
+        progressBar.setVisible(false);
+        cancelButton.setVisible(false);
+    }
+
+    public boolean isTaskRunning() {
+        return progressBar.isVisible();
+    }
+
+    // Слушатель для фонового потока: значения сливаются, в EDT уходит не больше одного обновления за раз
+    public ProgressListener progressListener() {
+        AtomicLongArray latest = new AtomicLongArray(2);
+        AtomicBoolean scheduled = new AtomicBoolean();
+        return (done, total) -> {
+            latest.set(0, done);
+            latest.set(1, total);
+            if (scheduled.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(() -> {
+                    scheduled.set(false);
+                    showProgress(latest.get(0), latest.get(1));
+                });
+            }
+        };
+    }
+
+    private void showProgress(long done, long total) {
+        if (!progressBar.isVisible()) return;
+        if (total <= 0) {
+            progressBar.setIndeterminate(true);
+            return;
+        }
+        progressBar.setIndeterminate(false);
+        progressBar.setValue((int) Math.min(1000, done * 1000 / total));
+    }
+}
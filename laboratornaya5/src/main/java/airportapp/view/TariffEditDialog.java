@@ -13,6 +13,7 @@ public class TariffEditDialog extends JDialog {
     private final JTextField priceField = new JTextField(10);
     private final JCheckBox discCheck = new JCheckBox("Со скидкой");
     private final JTextField discField = new JTextField(10);
+    private final JComboBox<String> discUnit = new JComboBox<>(new String[]{"руб.", "%"});
 
     public TariffEditDialog(Frame owner, Tariff existing) {
         super(owner, existing == null ? "Добавить тариф" : "Изменить тариф", true);
@@ -32,8 +33,13 @@ public class TariffEditDialog extends JDialog {
         gbc.gridx = 1; form.add(priceField, gbc);
         gbc.gridx = 0; gbc.gridy = 2; form.add(discCheck, gbc);
         gbc.gridx = 1; form.add(discField, gbc);
+        gbc.gridx = 2; form.add(discUnit, gbc);
         discField.setEnabled(false);
-        discCheck.addActionListener(e -> discField.setEnabled(discCheck.isSelected()));
+        discUnit.setEnabled(false);
+        discCheck.addActionListener(e -> {
+            discField.setEnabled(discCheck.isSelected());
+            discUnit.setEnabled(discCheck.isSelected());
+        });
 
         if (existing != null) {
             destField.setText(existing.getDestination());
@@ -43,6 +49,7 @@ public class TariffEditDialog extends JDialog {
                 discCheck.setSelected(true);
                 discField.setText(String.valueOf(disc));
                 discField.setEnabled(true);
+                discUnit.setEnabled(true);
             }
         }
 
@@ -67,7 +74,8 @@ public class TariffEditDialog extends JDialog {
             DiscountStrategy strat = new NoDiscount();
             if (discCheck.isSelected()) {
                 double disc = validateNum(discField.getText(), "скидка");
-                strat = new FixedDiscount(disc);
+                // в БД хранится сумма скидки, поэтому процент превращается в сумму при сохранении
+                strat = discUnit.getSelectedIndex() == 1 ? new PercentageDiscount(disc) : new FixedDiscount(disc);
             }
             result = new Tariff(dest, base, strat);
             dispose();
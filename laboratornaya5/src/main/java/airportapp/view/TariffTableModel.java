@@ -0,0 +1,239 @@
+// src/airportapp/view/TariffTableModel.java
+package airportapp.view;
+
+import airportapp.model.*;
+
+import javax.swing.table.AbstractTableModel;
+import java.text.DecimalFormatSymbols;
+import java.util.*;
+
+// Модель таблицы тарифов. Два режима:
+//  - список: все строки в памяти модели, изменения применяются построчно;
+//  - страницы: модель знает только число строк и подгружает видимые страницы из TariffPageSource.
+public class TariffTableModel extends AbstractTableModel {
+    // Источник строк для постраничного режима
+    public interface TariffPageSource {
+        int size();
+
+        List<Tariff> page(int offset, int limit);
+
+        // true — новые тарифы всегда оказываются в конце (порядок по id)
+        default boolean appendsAtEnd() {
+            return false;
+        }
+    }
+
+    private static final String[] COLUMNS = {"Направление", "Базовая цена", "Итоговая цена"};
+    private static final int PAGE_SIZE = 256;
+    private static final int MAX_CACHED_PAGES = 32;
+
+    private final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+    private List<Row> rows = new ArrayList<>();
+    // Строки отслеживаются по id тарифа: номер строки для каждого id
+    private final Map<Long, Integer> indexById = new HashMap<>();
+
+    private TariffPageSource pageSource;
+    private int pagedSize;
+    private final Map<Integer, Row[]> pages = new LinkedHashMap<>(MAX_CACHED_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Row[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    public TariffTableModel(List<Tariff> initial) {
+        setTariffs(initial);
+    }
+
+    public void setTariffs(List<Tariff> list) {
+        pageSource = null;
+        pages.clear();
+        List<Row> fresh = new ArrayList<>(list.size());
+        for (Tariff t : list) {
+            fresh.add(new Row(t));
+        }
+        rows = fresh;
+        reindexFrom(0);
+        fireTableDataChanged();
+    }
+
+    public void setPageSource(TariffPageSource source) {
+        rows = new ArrayList<>();
+        indexById.clear();
+        pageSource = source;
+        pages.clear();
+        pagedSize = source.size();
+        fireTableDataChanged();
+    }
+
+    public boolean isPaged() {
+        return pageSource != null;
+    }
+
+    // Применяет событие Airport построчно; RELOADED обрабатывает владелец модели
+    public void applyChange(TariffChangeEvent event) {
+        if (isPaged()) {
+            applyPaged(event);
+            return;
+        }
+        switch (event.getType()) {
+            case INSERTED -> insertRows(event.getTariffs());
+            case REMOVED -> removeRows(event.getTariffs());
+            case UPDATED -> updateRows(event.getTariffs());
+            default -> fireTableDataChanged();
+        }
+    }
+
+    private void insertRows(List<Tariff> inserted) {
+        if (inserted.isEmpty()) return;
+        int first = rows.size();
+        for (Tariff t : inserted) {
+            indexById.put(t.getId(), rows.size());
+            rows.add(new Row(t));
+        }
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    private void removeRows(List<Tariff> removed) {
+        int[] indexes = removed.stream()
+                .map(t -> indexById.get(t.getId()))
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        if (indexes.length == 0) return;
+        // Удаляем с конца непрерывными участками, чтобы индексы оставались верными
+        int end = indexes.length - 1;
+        while (end >= 0) {
+            int start = end;
+            while (start > 0 && indexes[start - 1] == indexes[start] - 1) start--;
+            rows.subList(indexes[start], indexes[end] + 1).clear();
+            fireTableRowsDeleted(indexes[start], indexes[end]);
+            end = start - 1;
+        }
+        for (Tariff t : removed) {
+            indexById.remove(t.getId());
+        }
+        reindexFrom(indexes[0]);
+    }
+
+    // Пачка изменений (массовая переоценка) — одно событие на весь затронутый диапазон строк
+    private void updateRows(List<Tariff> updated) {
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for (Tariff t : updated) {
+            Integer index = indexById.get(t.getId());
+            if (index != null) {
+                rows.set(index, new Row(t));
+                first = Math.min(first, index);
+                last = Math.max(last, index);
+            }
+        }
+        if (last >= 0) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private void reindexFrom(int from) {
+        if (from == 0) indexById.clear();
+        for (int i = from; i < rows.size(); i++) {
+            indexById.put(rows.get(i).tariff.getId(), i);
+        }
+    }
+
+    // Номер строки тарифа или -1, если его нет в таблице (например, в постраничном режиме)
+    public int rowOf(long id) {
+        Integer index = indexById.get(id);
+        return index == null ? -1 : index;
+    }
+
+    private void applyPaged(TariffChangeEvent event) {
+        int oldSize = pagedSize;
+        pagedSize = pageSource.size();
+        pages.clear();
+        if (event.getType() == TariffChangeEvent.Type.INSERTED && pageSource.appendsAtEnd() && pagedSize > oldSize) {
+            fireTableRowsInserted(oldSize, pagedSize - 1);
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    // Источник догрузил строки в фоне: закэшированные неполные страницы перечитываются
+    public void pagesLoaded() {
+        if (pageSource == null) {
+            return;
+        }
+        pages.clear();
+        if (pagedSize > 0) {
+            fireTableRowsUpdated(0, pagedSize - 1);
+        }
+    }
+
+    public Tariff getTariffAt(int row) {
+        Row r = rowAt(row);
+        return r == null ? null : r.tariff;
+    }
+
+    private Row rowAt(int row) {
+        if (pageSource == null) {
+            return rows.get(row);
+        }
+        int pageIndex = row / PAGE_SIZE;
+        Row[] page = pages.get(pageIndex);
+        if (page == null) {
+            List<Tariff> loaded = pageSource.page(pageIndex * PAGE_SIZE, PAGE_SIZE);
+            page = new Row[loaded.size()];
+            for (int i = 0; i < page.length; i++) {
+                page[i] = new Row(loaded.get(i));
+            }
+            pages.put(pageIndex, page);
+        }
+        // источник мог уменьшиться до прихода события об удалении
+        int offset = row % PAGE_SIZE;
+        return offset < page.length ? page[offset] : null;
+    }
+
+    @Override
+    public int getRowCount() { return pageSource == null ? rows.size() : pagedSize; }
+    @Override
+    public int getColumnCount() { return COLUMNS.length; }
+    @Override
+    public String getColumnName(int col) { return COLUMNS[col]; }
+    @Override
+    public Object getValueAt(int row, int col) {
+        Row r = rowAt(row);
+        if (r == null) return "";
+        return switch (col) {
+            case 0 -> r.tariff.getDestination();
+            case 1 -> r.baseText();
+            case 2 -> r.priceText();
+            default -> "";
+        };
+    }
+
+    // Строка таблицы с отформатированными ячейками: форматируются один раз, при первой отрисовке
+    private final class Row {
+        final Tariff tariff;
+        private String baseText;
+        private String priceText;
+
+        Row(Tariff tariff) {
+            this.tariff = tariff;
+        }
+
+        String baseText() {
+            if (baseText == null) {
+                baseText = PriceFormat.format(tariff.getBasePrice(), decimalSeparator);
+            }
+            return baseText;
+        }
+
+        String priceText() {
+            if (priceText == null) {
+                priceText = PriceFormat.format(tariff.getPrice(), decimalSeparator);
+            }
+            return priceText;
+        }
+    }
+}
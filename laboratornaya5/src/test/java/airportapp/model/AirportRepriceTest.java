@@ -0,0 +1,107 @@
+// src/test/airportapp/model/AirportRepriceTest.java
+package airportapp.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static airportapp.model.AirportTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Массовая переоценка и её отмена; строки, изменённые между ними, отмена не трогает
+class AirportRepriceTest {
+    @TempDir
+    Path dir;
+
+    private Airport airport;
+    private Tariff first;
+    private Tariff second;
+    private Tariff third;
+
+    @BeforeEach
+    void setUp() {
+        airport = open(dir, "reprice");
+        first = airport.addTariff(tariff("Москва", 1000, 0));
+        second = airport.addTariff(tariff("Москва", 2000, 100));
+        third = airport.addTariff(tariff("Сочи", 3000, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        airport.close();
+    }
+
+    @Test
+    void repriceUpdatesCacheAndStatistics() throws Exception {
+        List<TariffChangeEvent> events = new ArrayList<>();
+        airport.addChangeListener(events::add);
+
+        RepriceOperation op = airport.reprice(BulkReprice.scaleBasePrice(10));
+        assertEquals(3, op.rows());
+        assertEquals(1100, airport.getTariff(first.getId()).getBasePrice(), 1e-9);
+        assertEquals(2200 - 100, airport.getTariff(second.getId()).getPrice(), 1e-9);
+        assertEquals(3300, airport.getTariff(third.getId()).getBasePrice(), 1e-9);
+        assertEquals(3300, airport.findMaxPriceTariff().getPrice(), 1e-9);
+        assertEquals(1, events.size());
+        assertEquals(TariffChangeEvent.Type.UPDATED, events.getFirst().getType());
+        assertEquals(3, events.getFirst().getTariffs().size());
+
+        assertCacheMatchesDatabase(airport, dir, "reprice");
+        airport = open(dir, "reprice");
+    }
+
+    @Test
+    void undoRestoresOnlyUntouchedRows() throws Exception {
+        RepriceOperation op = airport.reprice(BulkReprice.scaleBasePrice(10));
+        // между переоценкой и отменой: одну строку правят вручную, другую удаляют
+        airport.updateTariff(second.getId(), tariff("Москва", 5000, 0));
+        airport.removeTariff(third.getId());
+
+        assertEquals(1, airport.undoReprice(op.id()));
+        assertEquals(1000, airport.getTariff(first.getId()).getBasePrice(), 1e-9);
+        assertEquals(5000, airport.getTariff(second.getId()).getBasePrice(), 1e-9, "ручная правка сохраняется");
+        assertNull(airport.getTariff(third.getId()));
+        assertEquals(2, airport.countTariffs());
+        assertEquals(5000, airport.findMaxPriceTariff().getPrice(), 1e-9);
+
+        assertThrows(IllegalStateException.class, () -> airport.undoReprice(op.id()));
+        assertTrue(airport.getRepriceHistory().getFirst().undone());
+
+        assertCacheMatchesDatabase(airport, dir, "reprice");
+        airport = open(dir, "reprice");
+    }
+
+    @Test
+    void secondRepriceShieldsRowsFromFirstUndo() throws Exception {
+        RepriceOperation raise = airport.reprice(BulkReprice.scaleBasePrice(10));
+        airport.reprice(BulkReprice.scaleBasePrice(10).destinationStartsWith("Сочи"));
+
+        // Сочи изменён второй переоценкой — отмена первой возвращает только Москву
+        assertEquals(2, airport.undoReprice(raise.id()));
+        assertEquals(1000, airport.getTariff(first.getId()).getBasePrice(), 1e-9);
+        assertEquals(2000, airport.getTariff(second.getId()).getBasePrice(), 1e-9);
+        assertEquals(3630, airport.getTariff(third.getId()).getBasePrice(), 1e-6);
+
+        // последняя неотменённая — вторая; после неё Сочи возвращается к цене после первой
+        assertEquals(1, airport.undoLastReprice());
+        assertEquals(3300, airport.getTariff(third.getId()).getBasePrice(), 1e-6);
+        assertEquals(-1, airport.undoLastReprice());
+    }
+
+    @Test
+    void emptyRepriceIsNotJournaled() throws Exception {
+        RepriceOperation op = airport.reprice(BulkReprice.scaleBasePrice(10).destinationStartsWith("Омск"));
+        assertEquals(0, op.rows());
+        assertTrue(airport.getRepriceHistory().isEmpty());
+    }
+
+    @Test
+    void unknownOperationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> airport.undoReprice(12345));
+    }
+}
@@ -0,0 +1,49 @@
+// src/test/airportapp/model/AirportTestSupport.java
+package airportapp.model;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Общие вспомогательные методы тестов Airport: отдельный файл SQLite во временном каталоге теста
+final class AirportTestSupport {
+    private AirportTestSupport() {}
+
+    static Airport open(Path dir, String name) {
+        return new Airport(DbConfig.forUrl("jdbc:sqlite:" + dir.resolve(name + ".db")));
+    }
+
+    static Tariff tariff(String destination, double basePrice, double discount) {
+        try {
+            return new Tariff(destination, basePrice,
+                    discount == 0 ? NoDiscount.INSTANCE : new FixedDiscount(discount));
+        } catch (InvalidTariffException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    // Те же тарифы с теми же id и ценами, без учёта порядка
+    static void assertSameTariffs(List<Tariff> expected, List<Tariff> actual) {
+        Comparator<Tariff> byId = Comparator.comparingLong(Tariff::getId);
+        List<Tariff> e = expected.stream().sorted(byId).toList();
+        List<Tariff> a = actual.stream().sorted(byId).toList();
+        assertEquals(e.size(), a.size(), "число тарифов");
+        for (int i = 0; i < e.size(); i++) {
+            assertEquals(e.get(i).getId(), a.get(i).getId());
+            assertEquals(e.get(i).getDestination(), a.get(i).getDestination(), "тариф " + e.get(i).getId());
+            assertEquals(e.get(i).getBasePrice(), a.get(i).getBasePrice(), 1e-9, "тариф " + e.get(i).getId());
+            assertEquals(e.get(i).getPrice(), a.get(i).getPrice(), 1e-9, "тариф " + e.get(i).getId());
+        }
+    }
+
+    // Кэш совпадает с БД: то же содержимое видит Airport, заново открытый на том же файле
+    static void assertCacheMatchesDatabase(Airport airport, Path dir, String name) {
+        List<Tariff> cached = airport.getTariffs();
+        airport.close();
+        try (Airport reopened = open(dir, name)) {
+            assertSameTariffs(reopened.getTariffs(), cached);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+// src/test/airportapp/model/PartitionedAirportTest.java
+package airportapp.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static airportapp.model.AirportTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Три секции: глобальные id, keyset-листание со слиянием секций, переезд тарифа при смене направления
+class PartitionedAirportTest {
+    private static final int PARTITIONS = 3;
+    private static final String[] DESTINATIONS =
+            {"Москва", "Сочи", "Казань", "Омск", "Пермь", "Уфа", "Самара", "Тула", "Курск", "Псков"};
+
+    @TempDir
+    Path dir;
+
+    private PartitionedAirport airport;
+    private List<Tariff> saved;
+
+    @BeforeEach
+    void setUp() {
+        airport = new PartitionedAirport(dir, PARTITIONS);
+        List<Tariff> tariffs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // цены повторяются — порядок внутри одной цены задаёт id
+            tariffs.add(tariff(DESTINATIONS[i % DESTINATIONS.length], 1000 + (i % 7) * 100, i % 3 == 0 ? 50 : 0));
+        }
+        saved = airport.addTariffs(tariffs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        airport.close();
+    }
+
+    @Test
+    void globalIdEncodesPartition() {
+        Set<Integer> used = new HashSet<>();
+        for (Tariff t : saved) {
+            int p = airport.partitionOf(t.getDestination());
+            assertEquals(p, Math.floorMod(t.getId(), (long) PARTITIONS), t.getDestination());
+            assertEquals(t.getDestination(), airport.getTariff(t.getId()).getDestination());
+            used.add(p);
+        }
+        assertEquals(PARTITIONS, used.size(), "тарифы есть во всех секциях");
+    }
+
+    @Test
+    void keysetPagesMatchSortedUnion() {
+        for (TariffSort sort : new TariffSort[] {TariffSort.FINAL_PRICE, TariffSort.ID}) {
+            for (boolean ascending : new boolean[] {true, false}) {
+                List<Tariff> expected = new ArrayList<>(saved);
+                expected.sort(PartitionedAirport.order(sort, ascending));
+                List<Tariff> pages = new ArrayList<>();
+                TariffQuery query = TariffQuery.all().sortedBy(sort, ascending).limit(6);
+                List<Tariff> page = airport.query(query);
+                while (!page.isEmpty()) {
+                    pages.addAll(page);
+                    page = airport.query(query.after(page.getLast()));
+                }
+                String what = sort + (ascending ? " по возрастанию" : " по убыванию");
+                assertEquals(ids(expected), ids(pages), what);
+            }
+        }
+    }
+
+    @Test
+    void offsetWindowsFollowGlobalIdOrder() {
+        List<Tariff> byId = airport.getTariffs();
+        assertSameTariffs(saved, byId);
+        for (int i = 1; i < byId.size(); i++) {
+            assertTrue(byId.get(i - 1).getId() < byId.get(i).getId());
+        }
+        for (int offset = 0; offset < byId.size() + 5; offset += 7) {
+            List<Tariff> window = airport.getTariffs(offset, 5);
+            List<Tariff> expected = byId.subList(Math.min(offset, byId.size()), Math.min(offset + 5, byId.size()));
+            assertEquals(ids(expected), ids(window), "offset " + offset);
+        }
+    }
+
+    @Test
+    void mergeInterleavesPartitions() {
+        List<List<Tariff>> parts = List.of(
+                List.of(withId(1), withId(4), withId(7)),
+                List.of(withId(2), withId(5)),
+                List.of(withId(3), withId(6)));
+        List<Tariff> merged = PartitionedAirport.merge(parts, PartitionedAirport.order(TariffSort.ID, true), 2, 3);
+        assertEquals(List.of(3L, 4L, 5L), ids(merged));
+        assertEquals(7, PartitionedAirport.merge(parts, PartitionedAirport.order(TariffSort.ID, true), 0, 0).size());
+    }
+
+    @Test
+    void destinationChangeMovesTariffToAnotherPartition() {
+        Tariff old = saved.getFirst();
+        int from = airport.partitionOf(old.getDestination());
+        String other = null;
+        for (String d : DESTINATIONS) {
+            if (airport.partitionOf(d) != from) {
+                other = d;
+                break;
+            }
+        }
+        assertNotNull(other);
+        int count = airport.countTariffs();
+
+        Tariff moved = airport.updateTariff(old.getId(), tariff(other, 4200, 0));
+        assertNotNull(moved);
+        assertNotEquals(old.getId(), moved.getId());
+        assertEquals(airport.partitionOf(other), Math.floorMod(moved.getId(), (long) PARTITIONS));
+        assertNull(airport.getTariff(old.getId()));
+        assertEquals(other, airport.getTariff(moved.getId()).getDestination());
+        assertEquals(4200, airport.getTariff(moved.getId()).getBasePrice(), 1e-9);
+        assertEquals(count, airport.countTariffs());
+        assertEquals(moved.getId(), airport.query(TariffQuery.topByFinalPrice(1)).getFirst().getId());
+    }
+
+    private static Tariff withId(long id) {
+        return tariff("Москва", 1000, 0).withId(id);
+    }
+
+    private static List<Long> ids(List<Tariff> tariffs) {
+        return tariffs.stream().map(Tariff::getId).toList();
+    }
+}
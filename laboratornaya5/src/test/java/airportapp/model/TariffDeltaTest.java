@@ -0,0 +1,142 @@
+// src/test/airportapp/model/TariffDeltaTest.java
+package airportapp.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static airportapp.model.AirportTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Дельта-экспорт между двумя БД: отметки журнала, полные и частичные дельты
+class TariffDeltaTest {
+    @TempDir
+    Path dir;
+
+    private Airport source;
+    private Airport target;
+
+    @BeforeEach
+    void setUp() {
+        source = open(dir, "source");
+        target = open(dir, "target");
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.close();
+        target.close();
+    }
+
+    private Path file(String name) {
+        return dir.resolve(name + TariffDelta.EXTENSION);
+    }
+
+    @Test
+    void firstExportIsFullThenPartial() throws Exception {
+        Tariff moscow = source.addTariff(tariff("Москва", 1000, 100));
+        Tariff sochi = source.addTariff(tariff("Сочи", 2000, 0));
+        source.addTariff(tariff("Казань", 3000, 50));
+
+        TariffDelta first = source.exportDelta(file("first"), ProgressListener.NONE);
+        assertTrue(first.full(), "первая дельта новой БД — полная");
+        assertEquals(0, first.fromWatermark());
+        assertEquals(source.getChangeWatermark(), first.toWatermark());
+        assertEquals(3, first.upserts());
+
+        TariffDelta applied = target.applyDelta(file("first"), ProgressListener.NONE);
+        assertEquals(first.toWatermark(), applied.toWatermark());
+        assertSameTariffs(source.getTariffs(), target.getTariffs());
+
+        source.updateTariff(moscow.getId(), tariff("Москва", 1500, 100));
+        source.removeTariff(sochi.getId());
+        source.addTariff(tariff("Омск", 4000, 0));
+
+        TariffDelta second = source.exportDelta(file("second"), ProgressListener.NONE);
+        assertFalse(second.full());
+        assertEquals(first.toWatermark(), second.fromWatermark(), "следующая дельта начинается с отметки прошлой");
+        assertEquals(2, second.upserts());
+        assertEquals(1, second.deletes());
+
+        target.applyDelta(file("second"), ProgressListener.NONE);
+        assertSameTariffs(source.getTariffs(), target.getTariffs());
+        assertCacheMatchesDatabase(target, dir, "target");
+        target = open(dir, "target");
+    }
+
+    @Test
+    void emptyDeltaKeepsWatermark() throws Exception {
+        source.addTariff(tariff("Москва", 1000, 0));
+        TariffDelta first = source.exportDelta(file("first"), ProgressListener.NONE);
+        TariffDelta second = source.exportDelta(file("second"), ProgressListener.NONE);
+        assertFalse(second.full());
+        assertEquals(0, second.changes());
+        assertEquals(first.toWatermark(), second.fromWatermark());
+        assertEquals(first.toWatermark(), second.toWatermark());
+    }
+
+    @Test
+    void partialDeltaOutOfOrderIsRejected() throws Exception {
+        source.addTariff(tariff("Москва", 1000, 0));
+        source.exportDelta(file("first"), ProgressListener.NONE);
+        source.addTariff(tariff("Сочи", 2000, 0));
+        source.exportDelta(file("second"), ProgressListener.NONE);
+
+        // вторая дельта без первой потеряла бы изменения
+        assertThrows(IllegalStateException.class, () -> target.applyDelta(file("second"), ProgressListener.NONE));
+        assertEquals(0, target.countTariffs());
+
+        target.applyDelta(file("first"), ProgressListener.NONE);
+        target.applyDelta(file("second"), ProgressListener.NONE);
+        assertSameTariffs(source.getTariffs(), target.getTariffs());
+        // повторное применение той же дельты тоже отклоняется
+        assertThrows(IllegalStateException.class, () -> target.applyDelta(file("second"), ProgressListener.NONE));
+    }
+
+    @Test
+    void replaceAllMakesNextDeltaFull() throws Exception {
+        source.addTariff(tariff("Москва", 1000, 0));
+        source.exportDelta(file("first"), ProgressListener.NONE);
+        target.applyDelta(file("first"), ProgressListener.NONE);
+
+        TariffBatch batch = new TariffBatch(new String[]{"Сочи", "Омск"}, new double[]{2000, 3000},
+                new double[]{0, 100}, 2);
+        source.replaceAll(batch, Airport.DEFAULT_BATCH_SIZE, ProgressListener.NONE);
+
+        TariffDelta delta = source.exportDelta(file("second"), ProgressListener.NONE);
+        assertTrue(delta.full());
+        target.applyDelta(file("second"), ProgressListener.NONE);
+        assertSameTariffs(source.getTariffs(), target.getTariffs());
+    }
+
+    @Test
+    void trimmedLogMakesOlderDeltaFull() throws Exception {
+        source.addTariff(tariff("Москва", 1000, 0));
+        long early = source.exportDelta(file("first"), ProgressListener.NONE).toWatermark();
+        source.addTariff(tariff("Сочи", 2000, 0));
+        source.addTariff(tariff("Омск", 3000, 0));
+
+        TariffDelta partial = source.exportDelta(file("partial"), early, ProgressListener.NONE);
+        assertFalse(partial.full());
+        assertEquals(2, partial.upserts());
+
+        source.trimChangeLog(source.getChangeWatermark());
+        TariffDelta afterTrim = source.exportDelta(file("full"), early, ProgressListener.NONE);
+        assertTrue(afterTrim.full(), "журнал до отметки удалён — частичная дельта невозможна");
+        assertEquals(3, afterTrim.upserts());
+    }
+
+    @Test
+    void gzipDeltaRoundTrips() throws Exception {
+        List<Tariff> added = source.addTariffs(List.of(
+                tariff("Москва", 1000, 10), tariff("Сочи", 2000, 20), tariff("Омск", 3000, 30)));
+        Path gz = dir.resolve("changes" + TariffDelta.EXTENSION + ".gz");
+        source.exportDelta(gz, ProgressListener.NONE);
+        target.applyDelta(gz, ProgressListener.NONE);
+        assertSameTariffs(added, target.getTariffs());
+    }
+}
@@ -0,0 +1,129 @@
+// src/test/airportapp/model/TariffFileParserTest.java
+package airportapp.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Параллельный разбор: файлы в несколько мегабайт делятся на куски (по 1 МБ и больше), поэтому
+// строки разной длины, CRLF, пустые строки и многобайтовые символы попадают на границы кусков
+class TariffFileParserTest {
+    @TempDir
+    Path dir;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private record Row(String destination, double basePrice, double discount) {}
+
+    // Файл из rows строк; expected получает ожидаемые тарифы в порядке файла
+    private Path writeFile(int rows, long seed, boolean trailingNewline, List<Row> expected) throws Exception {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            // длинные названия (больше буфера поиска границы в 256 байт) и кириллица — 2 байта на символ
+            String destination = random.nextInt(50) == 0
+                    ? "Санкт-Петербург ".repeat(1 + random.nextInt(20)).trim()
+                    : "Город " + random.nextInt(1000);
+            long cents = 10_000 + random.nextInt(5_000_000);
+            long discountCents = random.nextInt(3) == 0 ? 0 : random.nextInt(10_000);
+            expected.add(new Row(destination, cents / 100.0, Math.min(discountCents, cents) / 100.0));
+            text.append(destination).append('|').append(cents / 100).append('.')
+                    .append(String.format("%02d", cents % 100)).append('|')
+                    .append(discountCents / 100).append(random.nextBoolean() ? ',' : '.')
+                    .append(String.format("%02d", discountCents % 100));
+            text.append(random.nextInt(10) == 0 ? "\r\n" : "\n");
+            if (random.nextInt(20) == 0) {
+                text.append(random.nextBoolean() ? "\n" : "   \r\n");
+            }
+        }
+        if (!trailingNewline) {
+            while (text.charAt(text.length() - 1) == '\n' || text.charAt(text.length() - 1) == '\r'
+                    || text.charAt(text.length() - 1) == ' ') {
+                text.setLength(text.length() - 1);
+            }
+        }
+        Path file = dir.resolve("tariffs.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static void assertRows(List<Row> expected, TariffBatch batch) {
+        assertEquals(expected.size(), batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Row row = expected.get(i);
+            assertEquals(row.destination(), batch.destination(i), "строка " + i);
+            assertEquals(row.basePrice(), batch.basePrice(i), 1e-9, "строка " + i);
+            assertEquals(row.discount(), batch.discount(i), 1e-9, "строка " + i);
+        }
+    }
+
+    @Test
+    void multiChunkFileMatchesLineByLine() throws Exception {
+        List<Row> expected = new ArrayList<>();
+        Path file = writeFile(200_000, 1, true, expected);
+        assertTrue(Files.size(file) > 4 << 20, "файл должен делиться на несколько кусков");
+        assertRows(expected, TariffFileParser.parse(file, pool));
+    }
+
+    @Test
+    void lastLineWithoutNewline() throws Exception {
+        List<Row> expected = new ArrayList<>();
+        Path file = writeFile(150_000, 2, false, expected);
+        assertRows(expected, TariffFileParser.parse(file, pool));
+    }
+
+    @Test
+    void sameResultForAnyParallelism() throws Exception {
+        List<Row> expected = new ArrayList<>();
+        Path file = writeFile(120_000, 3, true, expected);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            assertRows(expected, TariffFileParser.parse(file, single));
+        } finally {
+            single.shutdownNow();
+        }
+        assertRows(expected, TariffFileParser.parse(file, pool));
+    }
+
+    // Номера строк с ошибками считаются от начала файла, а не куска
+    @Test
+    void errorLineNumbersAreGlobal() throws Exception {
+        StringBuilder text = new StringBuilder();
+        int lines = 300_000;
+        for (int i = 1; i <= lines; i++) {
+            if (i == 7 || i == 150_001 || i == lines) {
+                text.append("сломанная строка\n");
+            } else {
+                text.append("Москва|").append(1000 + i % 500).append(".50|10\n");
+            }
+        }
+        Path file = dir.resolve("broken.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        assertTrue(Files.size(file) > 4 << 20);
+
+        TariffParseException e = assertThrows(TariffParseException.class, () -> TariffFileParser.parse(file, pool));
+        assertEquals(List.of(7L, 150_001L, (long) lines),
+                e.getErrors().stream().map(TariffParseException.LineError::line).toList());
+    }
+}
@@ -0,0 +1,94 @@
+// src/test/airportapp/model/TariffSnapshotTest.java
+package airportapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Снапшот без БД: кодирование хранилища, запись, чтение и отказ на повреждённых файлах
+class TariffSnapshotTest {
+    @TempDir
+    Path dir;
+
+    private static TariffStore store(int rows, int destinations, long seed) {
+        TariffStore store = new TariffStore();
+        Random random = new Random(seed);
+        for (int i = 1; i <= rows; i++) {
+            double base = 100 + random.nextInt(1_000_000) / 100.0;
+            store.append(i, "Город " + random.nextInt(destinations), base, Math.min(base, random.nextInt(500)));
+        }
+        return store;
+    }
+
+    private Path write(TariffStore store) throws IOException {
+        Path file = dir.resolve("tariffs" + TariffSnapshot.EXTENSION);
+        TariffSnapshot.write(TariffSnapshot.encode(store), file);
+        return file;
+    }
+
+    @Test
+    void roundTripKeepsRowsInOrder() throws Exception {
+        TariffStore store = store(10_000, 300, 1);
+        TariffBatch batch = TariffSnapshot.read(write(store));
+        assertEquals(store.size(), batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(store.destination(i), batch.destination(i));
+            assertEquals(store.basePrice(i), batch.basePrice(i));
+            assertEquals(store.discount(i), batch.discount(i));
+        }
+    }
+
+    @Test
+    void emptyStoreRoundTrips() throws Exception {
+        assertEquals(0, TariffSnapshot.read(write(new TariffStore())).size());
+    }
+
+    @Test
+    void rewriteReplacesPreviousSnapshot() throws Exception {
+        write(store(1000, 10, 1));
+        Path file = write(store(10, 3, 2));
+        assertEquals(10, TariffSnapshot.read(file).size());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count(), "временный файл должен быть удалён");
+        }
+    }
+
+    @Test
+    void corruptedBodyIsRejected() throws Exception {
+        Path file = write(store(1000, 50, 3));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TariffSnapshot.read(file));
+    }
+
+    @Test
+    void everyCorruptedHeaderByteIsRejected() throws Exception {
+        Path file = write(store(200, 20, 4));
+        byte[] original = Files.readAllBytes(file);
+        for (int offset = 0; offset < 64; offset++) {
+            byte[] bytes = original.clone();
+            bytes[offset] ^= 0x40;
+            Files.write(file, bytes);
+            int at = offset;
+            assertThrows(IOException.class, () -> TariffSnapshot.read(file), "байт заголовка " + at);
+        }
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws Exception {
+        Path file = write(store(200, 20, 5));
+        byte[] original = Files.readAllBytes(file);
+        for (int length : new int[]{0, 10, 63, 64, 100, original.length - 1}) {
+            Files.write(file, Arrays.copyOf(original, length));
+            assertThrows(IOException.class, () -> TariffSnapshot.read(file), "длина " + length);
+        }
+    }
+}
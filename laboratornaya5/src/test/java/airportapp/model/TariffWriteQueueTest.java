@@ -0,0 +1,160 @@
+// src/test/airportapp/model/TariffWriteQueueTest.java
+package airportapp.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static airportapp.model.AirportTestSupport.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Групповая запись: порядок изменений и событий, повтор группы по одному при ошибке,
+// кэш обновлён до того, как future завершается
+class TariffWriteQueueTest {
+    // Долгое ожидание — все изменения теста попадают в одну группу
+    private static final Duration LINGER = Duration.ofMillis(300);
+
+    @TempDir
+    Path dir;
+
+    private Airport airport;
+    private TariffWriteQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        airport = open(dir, "queue");
+        queue = new TariffWriteQueue(airport, TariffWriteQueue.DEFAULT_MAX_BATCH, LINGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+        airport.close();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void idsFollowSubmissionOrder() throws Exception {
+        List<CompletableFuture<Tariff>> pending = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pending.add(queue.add(tariff("Город " + i, 1000 + i, 0)));
+        }
+        long previous = Tariff.NO_ID;
+        for (int i = 0; i < pending.size(); i++) {
+            Tariff saved = await(pending.get(i));
+            assertEquals("Город " + i, saved.getDestination());
+            assertTrue(saved.getId() > previous, "id растут в порядке постановки в очередь");
+            previous = saved.getId();
+        }
+        assertEquals(200, airport.countTariffs());
+        assertCacheMatchesDatabase(airport, dir, "queue");
+        airport = open(dir, "queue");
+    }
+
+    @Test
+    void mutationsOfOneGroupApplyInOrder() throws Exception {
+        Tariff saved = airport.addTariff(tariff("Москва", 1000, 0));
+        List<TariffChangeEvent.Type> types = new CopyOnWriteArrayList<>();
+        airport.addChangeListener(event -> types.add(event.getType()));
+
+        CompletableFuture<Tariff> updated = queue.update(saved.getId(), tariff("Москва", 1500, 0));
+        CompletableFuture<Boolean> removed = queue.remove(saved.getId());
+        CompletableFuture<Tariff> added = queue.add(tariff("Сочи", 2000, 0));
+        CompletableFuture<Boolean> removedAgain = queue.remove(saved.getId());
+
+        assertEquals(1500, await(updated).getBasePrice(), 1e-9);
+        assertTrue(await(removed));
+        assertNotNull(await(added));
+        assertFalse(await(removedAgain), "строка уже удалена предыдущим изменением группы");
+        assertEquals(List.of(TariffChangeEvent.Type.UPDATED, TariffChangeEvent.Type.REMOVED,
+                TariffChangeEvent.Type.INSERTED), types);
+        assertNull(airport.getTariff(saved.getId()));
+        assertEquals(1, airport.countTariffs());
+    }
+
+    // Когда future завершено, тариф уже виден в кэше; подписчик тоже видит новую версию
+    @Test
+    void cacheIsPublishedBeforeCompletion() throws Exception {
+        List<Boolean> visibleInListener = new CopyOnWriteArrayList<>();
+        airport.addChangeListener(event -> {
+            for (Tariff t : event.getTariffs()) {
+                visibleInListener.add(airport.getTariff(t.getId()) != null);
+            }
+        });
+        Tariff saved = await(queue.add(tariff("Казань", 1200, 0)));
+        assertNotNull(airport.getTariff(saved.getId()));
+        assertEquals(List.of(true), visibleInListener);
+    }
+
+    // Ошибка одного изменения откатывает группу; изменения повторяются по одному,
+    // и чужие записи сохраняются ровно один раз. Ошибку даёт сама БД: триггер отклоняет
+    // вставку одного направления
+    @Test
+    void failedGroupIsRetriedOneByOne() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("queue.db"));
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TRIGGER reject_destination BEFORE INSERT ON tariffs
+                    WHEN NEW.destination = 'Отклонить'
+                    BEGIN SELECT RAISE(ABORT, 'направление отклонено'); END
+                    """);
+        }
+        CompletableFuture<Tariff> before = queue.add(tariff("Москва", 1000, 0));
+        CompletableFuture<Tariff> broken = queue.add(tariff("Отклонить", 1500, 0));
+        CompletableFuture<Tariff> after = queue.add(tariff("Сочи", 2000, 0));
+
+        Tariff first = await(before);
+        Tariff second = await(after);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> await(broken));
+        assertTrue(e.getCause().getMessage().contains("направление отклонено"), String.valueOf(e.getCause()));
+        assertTrue(first.getId() < second.getId());
+        assertEquals(2, airport.countTariffs());
+        assertCacheMatchesDatabase(airport, dir, "queue");
+        airport = open(dir, "queue");
+    }
+
+    // Неверный аргумент отклоняется в вызывающем потоке, а не в группе писателя
+    @Test
+    void nullTariffIsRejectedAtCallSite() {
+        assertThrows(NullPointerException.class, () -> queue.add(null));
+        assertThrows(NullPointerException.class, () -> queue.update(1, null));
+    }
+
+    // Подписчик с ошибкой не вызывает повтор уже зафиксированной группы
+    @Test
+    void listenerErrorFailsFuturesWithoutRetry() throws Exception {
+        airport.addChangeListener(event -> {
+            throw new IllegalStateException("подписчик упал");
+        });
+        CompletableFuture<Tariff> added = queue.add(tariff("Москва", 1000, 0));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> await(added));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(1, airport.countTariffs(), "запись зафиксирована один раз");
+    }
+
+    @Test
+    void closedQueueRejectsWrites() throws Exception {
+        CompletableFuture<Tariff> queued = queue.add(tariff("Москва", 1000, 0));
+        queue.close();
+        assertNotNull(await(queued), "поставленное до закрытия записывается");
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> await(queue.add(tariff("Сочи", 2000, 0))));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+}